@@ -4,14 +4,19 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.exeption.BadRequestException;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -35,24 +40,47 @@ public class BookingClient extends BaseClient {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getAllBookingsByItemsByUser(long userId, String state) {
-        Map<String, Object> parameters = Map.of("state", state);
-        return get("/owner?state={state}", userId, parameters);
+    public ResponseEntity<Object> getAllBookingsByItemsByUser(long userId, String state, String cursor, Integer size) {
+        return getPage("/owner", userId, state, cursor, size);
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportBookingsByItemsByUser(long userId, String state, boolean archived) {
+        Map<String, Object> parameters = Map.of("state", state, "archived", archived);
+        return stream("/owner/export?state={state}&archived={archived}", userId, parameters,
+                MediaType.APPLICATION_NDJSON);
     }
 
     public ResponseEntity<Object> findBookingById(long userId, long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> approvedBooking(long userId, long bookingId, Boolean approved) {
+    public ResponseEntity<Object> approvedBooking(long userId, long bookingId, Boolean approved, String ifMatch) {
         Map<String, Object> parameters = Map.of("approved", approved.toString());
         String path = "/" + bookingId + "?approved={approved}";
-        return patch(path, userId, parameters, null);
+        return patch(path, userId, parameters, null, ifMatch);
+    }
+
+    public ResponseEntity<Object> approveBookings(long userId, List<BookingApprovalDto> approvals) {
+        return patch("/approve", userId, approvals);
     }
 
-    public ResponseEntity<Object> getAllBookingsByUser(long userId, String state) {
-        Map<String, Object> parameters = Map.of("state", state);
-        return get("", userId, parameters);
+    public ResponseEntity<Object> getAllBookingsByUser(long userId, String state, String cursor, Integer size) {
+        return getPage("", userId, state, cursor, size);
+    }
+
+    private ResponseEntity<Object> getPage(String path, long userId, String state, String cursor, Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state);
+        StringBuilder query = new StringBuilder(path).append("?state={state}");
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+            query.append("&cursor={cursor}");
+        }
+        if (size != null) {
+            parameters.put("size", size);
+            query.append("&size={size}");
+        }
+        return get(query.toString(), userId, parameters);
     }
 
     private void validationBookingDto(BookItemRequestDto bookingRequestDto) {
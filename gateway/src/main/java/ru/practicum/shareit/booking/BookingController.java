@@ -1,13 +1,20 @@
 package ru.practicum.shareit.booking;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+
+import java.util.List;
 
 
 @Controller
@@ -35,23 +42,43 @@ public class BookingController {
 
 	@GetMapping("/owner")
 	public ResponseEntity<Object> getAllBookingsByItemsByUser(@RequestHeader("X-Sharer-User-Id") Long userId,
-															  @RequestParam (value = "state", defaultValue = "ALL") String state) {
+															  @RequestParam (value = "state", defaultValue = "ALL") String state,
+															  @RequestParam (value = "cursor", required = false) String cursor,
+															  @Positive @RequestParam (value = "size", required = false) Integer size) {
 		log.info("Запрос на получение списка бронирований для всех вещей пользователя с ID {}", userId);
-		return bookingClient.getAllBookingsByItemsByUser(userId, state);
+		return bookingClient.getAllBookingsByItemsByUser(userId, state, cursor, size);
+	}
+
+	@GetMapping("/owner/export")
+	public ResponseEntity<StreamingResponseBody> exportBookingsByItemsByUser(@RequestHeader("X-Sharer-User-Id") Long userId,
+																			 @RequestParam (value = "state", defaultValue = "ALL") String state,
+																			 @RequestParam (value = "archived", defaultValue = "false") boolean archived) {
+		log.info("Запрос на выгрузку бронирований для всех вещей пользователя с ID {}", userId);
+		return bookingClient.exportBookingsByItemsByUser(userId, state, archived);
 	}
 
 	@PatchMapping("/{bookingId}")
 	public ResponseEntity<Object> updateBookingStatus(@RequestHeader("X-Sharer-User-Id") Long userId,
+												      @RequestHeader(value = "If-Match", required = false) String ifMatch,
 												      @PathVariable Long bookingId,
 												      @RequestParam (value = "approved") Boolean approved) {
 		log.info("Запрос на обновление статуса брони с ID {}", bookingId);
-		return bookingClient.approvedBooking(userId, bookingId, approved);
+		return bookingClient.approvedBooking(userId, bookingId, approved, ifMatch);
+	}
+
+	@PatchMapping("/approve")
+	public ResponseEntity<Object> approveBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+												  @RequestBody @NotEmpty @Size(max = 100) List<@Valid BookingApprovalDto> approvals) {
+		log.info("Запрос на пакетное подтверждение {} бронирований пользователем с ID {}", approvals.size(), userId);
+		return bookingClient.approveBookings(userId, approvals);
 	}
 
 	@GetMapping
 	public ResponseEntity<Object> getAllBookingsByUser(@RequestHeader("X-Sharer-User-Id") Long userId,
-													   @RequestParam (value = "state", defaultValue = "ALL") String state) {
+													   @RequestParam (value = "state", defaultValue = "ALL") String state,
+													   @RequestParam (value = "cursor", required = false) String cursor,
+													   @Positive @RequestParam (value = "size", required = false) Integer size) {
 		log.info("Запрос на получение списка всех бронирований пользователя с ID {}", userId);
-		return bookingClient.getAllBookingsByUser(userId, state);
+		return bookingClient.getAllBookingsByUser(userId, state, cursor, size);
 	}
 }
@@ -13,6 +13,8 @@ public enum BookingState {
 	PAST,
 	// Отклоненные
 	REJECTED,
+	// Просроченные без подтверждения
+	EXPIRED,
 	// Ожидающие подтверждения
 	WAITING;
 
@@ -4,15 +4,20 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.exeption.BadRequestException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 
@@ -37,21 +42,50 @@ public class ItemClient extends BaseClient {
         return post("", userId, item);
     }
 
-    public ResponseEntity<Object> updateItemDto(long userId, long itemId, ItemDto item) {
-        return patch("/" + itemId, userId, item);
+    public ResponseEntity<Object> addItems(long userId, InputStreamResource items, MediaType contentType) {
+        return post("/batch", userId, items, contentType);
+    }
+
+    public ResponseEntity<Object> updateItemDto(long userId, long itemId, ItemDto item, String ifMatch) {
+        return patch("/" + itemId, userId, null, item, ifMatch);
     }
 
     public ResponseEntity<Object> getItemDtoById(long userId, long itemId) {
         return get("/" + itemId, userId);
     }
 
+    public ResponseEntity<Object> getItemAvailability(long userId, long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            log.info("Некорректный период для поиска свободных окон");
+            throw new BadRequestException("Начало периода должно быть раньше его окончания");
+        }
+        Map<String, Object> parameters = Map.of("from", from, "to", to);
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
+    }
+
     public ResponseEntity<Object> getItemsDtoByUserId(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getItemsDtoBySearch(long userId, String text) {
-        Map<String, Object> parameters = Map.of("text", text);
-        return get("/search?text={text}", userId, parameters);
+    public ResponseEntity<StreamingResponseBody> exportItemsDtoByUserId(long userId) {
+        return stream("/export", userId, null, MediaType.APPLICATION_NDJSON);
+    }
+
+    public ResponseEntity<Object> getItemsDtoBySearch(long userId, String text, int from, Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("text", text);
+        parameters.put("from", from);
+        StringBuilder query = new StringBuilder("/search?text={text}&from={from}");
+        if (size != null) {
+            parameters.put("size", size);
+            query.append("&size={size}");
+        }
+        return get(query.toString(), userId, parameters);
+    }
+
+    public ResponseEntity<Object> getItemNamesByPrefix(long userId, String prefix, int size) {
+        Map<String, Object> parameters = Map.of("prefix", prefix, "size", size);
+        return get("/suggest?prefix={prefix}&size={size}", userId, parameters);
     }
 
     public ResponseEntity<Object> setCommentInItem(long bookerId, long itemId, CommentDto comment) {
@@ -1,15 +1,25 @@
 package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
+
 
 @Controller
 @RequestMapping(path = "/items")
@@ -27,6 +37,15 @@ public class ItemController {
         return itemClient.addItem(userId, item);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> createItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                                              @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false)
+                                              MediaType contentType,
+                                              InputStream body) {
+        log.info("Запрос на пакетное добавление вещей пользователя с ID {}", userId);
+        return itemClient.addItems(userId, new InputStreamResource(body), contentType);
+    }
+
     @PostMapping("/{itemId}/comment")
     public ResponseEntity<Object> createComment(@RequestHeader("X-Sharer-User-Id") long bookerId,
                                                 @PathVariable long itemId,
@@ -37,10 +56,11 @@ public class ItemController {
 
     @PatchMapping("/{itemId}")
     public ResponseEntity<Object> updateItem(@RequestHeader("X-Sharer-User-Id") long userId,
+                                             @RequestHeader(value = "If-Match", required = false) String ifMatch,
                                              @PathVariable long itemId,
                                              @RequestBody ItemDto item) {
         log.info("Запрос на обновление {} у пользователя с ID {}", item.getName(), userId);
-        return itemClient.updateItemDto(userId, itemId, item);
+        return itemClient.updateItemDto(userId, itemId, item, ifMatch);
     }
 
     @GetMapping("/{itemId}")
@@ -50,16 +70,43 @@ public class ItemController {
         return itemClient.getItemDtoById(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getItemAvailability(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                      @PathVariable long itemId,
+                                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                      @RequestParam(name = "from") LocalDateTime from,
+                                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                      @RequestParam(name = "to") LocalDateTime to) {
+        log.info("Запрос свободных окон вещи с ID {} с {} по {}", itemId, from, to);
+        return itemClient.getItemAvailability(userId, itemId, from, to);
+    }
+
     @GetMapping
     public ResponseEntity<Object> getItemsByUser(@RequestHeader("X-Sharer-User-Id") long userId) {
         log.info("Запрос на получение списка данных по всем вещам пользователя с ID {}", userId);
         return itemClient.getItemsDtoByUserId(userId);
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportItemsByUser(@RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("Запрос на выгрузку всех вещей пользователя с ID {}", userId);
+        return itemClient.exportItemsDtoByUserId(userId);
+    }
+
     @GetMapping("/search")
     public ResponseEntity<Object> getItemsBySearch(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                   @RequestParam(value = "text") String text) {
+                                                   @RequestParam(value = "text") String text,
+                                                   @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") int from,
+                                                   @Positive @RequestParam(name = "size", required = false) Integer size) {
         log.info("Запрос на поиск вещей пользователя с ID {} по параметру '{}'", userId, text);
-        return itemClient.getItemsDtoBySearch(userId, text.toLowerCase());
+        return itemClient.getItemsDtoBySearch(userId, text.toLowerCase(), from, size);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> getItemNamesByPrefix(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                       @RequestParam(value = "prefix") String prefix,
+                                                       @Positive @RequestParam(name = "size", defaultValue = "10") int size) {
+        log.info("Запрос подсказок названий вещей пользователя с ID {} по префиксу '{}'", userId, prefix);
+        return itemClient.getItemNamesByPrefix(userId, prefix, size);
     }
 }
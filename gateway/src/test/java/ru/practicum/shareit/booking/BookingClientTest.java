@@ -0,0 +1,84 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.client.RestClientTest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+@RestClientTest(value = BookingClient.class, properties = "shareit-server.url=http://localhost:9090")
+@RequiredArgsConstructor(onConstructor_ = {@Autowired})
+public class BookingClientTest {
+
+    private static final String EXPORT_URL = "http://localhost:9090/bookings/owner/export?state=ALL&archived=false";
+
+    private final BookingClient bookingClient;
+    private final MockRestServiceServer server;
+
+    @Test
+    void exportBookingsStreamsNdjsonTest() throws IOException {
+        String lines = "{\"id\":1}\n{\"id\":2}\n";
+        server.expect(requestTo(EXPORT_URL))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header("X-Sharer-User-Id", "1"))
+                .andRespond(withSuccess(lines, MediaType.APPLICATION_NDJSON));
+
+        ResponseEntity<StreamingResponseBody> response = bookingClient.exportBookingsByItemsByUser(1L, "ALL", false);
+
+        assertThat(response.getStatusCode(), is(HttpStatus.OK));
+        assertThat(response.getHeaders().getContentType(), is(MediaType.APPLICATION_NDJSON));
+        assertThat(write(response), is(lines));
+        server.verify();
+    }
+
+    @Test
+    void exportBookingsPassesNotFoundTest() throws IOException {
+        String error = "{\"error\":\"Пользователь с ID 1 не зарегистрирован\"}";
+        server.expect(requestTo(EXPORT_URL))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(error.getBytes(StandardCharsets.UTF_8)));
+
+        ResponseEntity<StreamingResponseBody> response = bookingClient.exportBookingsByItemsByUser(1L, "ALL", false);
+
+        assertThat(response.getStatusCode(), is(HttpStatus.NOT_FOUND));
+        assertThat(response.getHeaders().getContentType(), is(MediaType.APPLICATION_JSON));
+        assertThat(write(response), is(error));
+    }
+
+    @Test
+    void exportBookingsPassesForbiddenTest() throws IOException {
+        server.expect(requestTo(EXPORT_URL))
+                .andRespond(withStatus(HttpStatus.FORBIDDEN)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body("{\"error\":\"Доступ запрещен\"}".getBytes(StandardCharsets.UTF_8)));
+
+        ResponseEntity<StreamingResponseBody> response = bookingClient.exportBookingsByItemsByUser(1L, "ALL", false);
+
+        assertThat(response.getStatusCode(), is(HttpStatus.FORBIDDEN));
+        assertThat(response.getHeaders().getContentType(), is(MediaType.APPLICATION_JSON));
+    }
+
+    private static String write(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
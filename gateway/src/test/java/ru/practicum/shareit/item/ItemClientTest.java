@@ -0,0 +1,66 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.client.RestClientTest;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+@RestClientTest(value = ItemClient.class, properties = "shareit-server.url=http://localhost:9090")
+@RequiredArgsConstructor(onConstructor_ = {@Autowired})
+public class ItemClientTest {
+
+    private static final String BATCH_URL = "http://localhost:9090/items/batch";
+
+    private final ItemClient itemClient;
+    private final MockRestServiceServer server;
+
+    @Test
+    void addItemsPassesNdjsonContentTypeTest() {
+        String lines = "{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}\n";
+        server.expect(requestTo(BATCH_URL))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE))
+                .andExpect(content().string(lines))
+                .andRespond(withSuccess("[{\"row\":0,\"id\":1}]", MediaType.APPLICATION_JSON));
+
+        ResponseEntity<Object> response = itemClient.addItems(1L, resource(lines), MediaType.APPLICATION_NDJSON);
+
+        assertThat(response.getStatusCode(), is(HttpStatus.OK));
+        server.verify();
+    }
+
+    @Test
+    void addItemsDefaultsToJsonContentTypeTest() {
+        String items = "[{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}]";
+        server.expect(requestTo(BATCH_URL))
+                .andExpect(header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE))
+                .andRespond(withSuccess("[{\"row\":0,\"id\":1}]", MediaType.APPLICATION_JSON));
+
+        ResponseEntity<Object> response = itemClient.addItems(1L, resource(items), null);
+
+        assertThat(response.getStatusCode(), is(HttpStatus.OK));
+        server.verify();
+    }
+
+    private static InputStreamResource resource(String body) {
+        return new InputStreamResource(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+}
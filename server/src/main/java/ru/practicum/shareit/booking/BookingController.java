@@ -1,20 +1,36 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.util.EntityTags;
+import ru.practicum.shareit.util.NdjsonResponse;
 
 import java.util.Collection;
+import java.util.List;
 
 @RestController
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
+@Validated
 public class BookingController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int DEFAULT_PAGE_SIZE = 10;
+
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public BookingResponseDto createBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
@@ -23,27 +39,66 @@ public class BookingController {
     }
 
     @PatchMapping("/{bookingId}")
-    public BookingResponseDto updateBookingStatus(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                  @PathVariable Long bookingId,
-                                                  @RequestParam (value = "approved") Boolean approved) {
-        return bookingService.approvedBooking(userId, bookingId, approved);
+    public ResponseEntity<BookingResponseDto> updateBookingStatus(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                  @RequestHeader(value = "If-Match", required = false) String ifMatch,
+                                                                  @PathVariable Long bookingId,
+                                                                  @RequestParam (value = "approved") Boolean approved) {
+        BookingResponseDto booking = bookingService.approvedBooking(userId, bookingId, approved,
+                EntityTags.parseVersion(ifMatch));
+        return EntityTags.ok(booking, booking.getVersion());
+    }
+
+    @PatchMapping("/approve")
+    public List<BookingApprovalResultDto> approveBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                          @RequestBody List<BookingApprovalDto> approvals) {
+        return bookingService.approveBookings(userId, approvals);
     }
 
     @GetMapping("/{bookingId}")
-    public BookingResponseDto getBookingById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                             @PathVariable Long bookingId) {
-        return bookingService.findBookingById(userId, bookingId);
+    public ResponseEntity<BookingResponseDto> getBookingById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                             @PathVariable Long bookingId) {
+        BookingResponseDto booking = bookingService.findBookingById(userId, bookingId);
+        return EntityTags.ok(booking, booking.getVersion());
     }
 
     @GetMapping
-    public Collection<BookingResponseDto> getAllBookingsByUser(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                               @RequestParam (value = "state", defaultValue = "ALL") String state) {
-        return bookingService.getAllBookingsByUser(userId, state);
+    public ResponseEntity<Collection<BookingResponseDto>> getAllBookingsByUser(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                               @RequestParam (value = "state", defaultValue = "ALL") String state,
+                                                                               @RequestParam (value = "cursor", required = false) String cursor,
+                                                                               @Positive @RequestParam (value = "size", required = false) Integer size) {
+        if (cursor == null && size == null) {
+            return ResponseEntity.ok(bookingService.getAllBookingsByUser(userId, state));
+        }
+        return toResponse(bookingService.getBookingsPageByUser(userId, state, cursor, pageSize(size)));
     }
 
     @GetMapping("/owner")
-    public Collection<BookingResponseDto> getAllBookingsByItemsByUser(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                                      @RequestParam (value = "state", defaultValue = "ALL") String state) {
-        return bookingService.getAllBookingsByItemsByUser(userId, state);
+    public ResponseEntity<Collection<BookingResponseDto>> getAllBookingsByItemsByUser(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                                      @RequestParam (value = "state", defaultValue = "ALL") String state,
+                                                                                      @RequestParam (value = "cursor", required = false) String cursor,
+                                                                                      @Positive @RequestParam (value = "size", required = false) Integer size) {
+        if (cursor == null && size == null) {
+            return ResponseEntity.ok(bookingService.getAllBookingsByItemsByUser(userId, state));
+        }
+        return toResponse(bookingService.getBookingsPageByItemsByUser(userId, state, cursor, pageSize(size)));
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportBookingsByItemsByUser(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                             @RequestParam (value = "state", defaultValue = "ALL") String state,
+                                                                             @RequestParam (value = "archived", defaultValue = "false") boolean archived) {
+        return NdjsonResponse.of(objectMapper, bookingService.exportBookingsByItemsByUser(userId, state, archived));
+    }
+
+    private static int pageSize(Integer size) {
+        return size == null ? DEFAULT_PAGE_SIZE : size;
+    }
+
+    private static ResponseEntity<Collection<BookingResponseDto>> toResponse(BookingPageDto page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getBookings());
     }
 }
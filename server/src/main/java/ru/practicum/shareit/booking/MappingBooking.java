@@ -2,15 +2,19 @@ package ru.practicum.shareit.booking;
 
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.MappingItem;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.MappingBooker;
 import ru.practicum.shareit.validation.exeption.BadRequestException;
 
-import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 public class MappingBooking {
@@ -23,6 +27,7 @@ public class MappingBooking {
                 .status(BookingStatus.values()[booking.getStatus()])
                 .booker(MappingBooker.mapToBooker(booking.getBookerId()))
                 .item(MappingItem.mapToItemDto(booking.getItem()))
+                .version(booking.getVersion())
                 .build();
     }
 
@@ -34,12 +39,53 @@ public class MappingBooking {
                 .status(BookingStatus.values()[booking.getStatus()])
                 .booker(MappingBooker.mapToBooker(booking.getBookerId()))
                 .item(MappingItem.mapToItemDto(item))
+                .version(booking.getVersion())
                 .build();
     }
 
-    public static Collection<BookingResponseDto> mapToBookingResponseDto(Collection<Booking> booking) {
+    public static BookingResponseDto mapToBookingResponseDto(Booking booking, Collection<Comment> comments) {
+        return BookingResponseDto.builder()
+                .id(booking.getId())
+                .start(booking.getStartTime())
+                .end(booking.getEndTime())
+                .status(BookingStatus.values()[booking.getStatus()])
+                .booker(MappingBooker.mapToBooker(booking.getBookerId()))
+                .item(MappingItem.mapToItemDto(booking.getItem(), comments))
+                .version(booking.getVersion())
+                .build();
+    }
+
+    public static Collection<BookingResponseDto> mapToBookingResponseDto(Collection<Booking> booking,
+                                                                         Map<Long, List<Comment>> comments) {
         return booking.stream()
-                .map(MappingBooking::mapToBookingResponseDto)
+                .map(it -> mapToBookingResponseDto(it, comments.getOrDefault(it.getItem().getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
+    public static BookingResponseDto mapToBookingResponseDto(BookingView booking, Collection<Comment> comments) {
+        return BookingResponseDto.builder()
+                .id(booking.id())
+                .start(booking.startTime())
+                .end(booking.endTime())
+                .status(BookingStatus.values()[booking.status()])
+                .booker(MappingBooker.mapToBooker(booking.bookerId()))
+                .version(booking.version())
+                .item(ItemDto.builder()
+                        .id(booking.itemId())
+                        .name(booking.itemName())
+                        .description(booking.itemDescription())
+                        .available(booking.itemAvailable())
+                        .requestId(booking.itemRequestId())
+                        .comments(MappingItem.mapToCommentDto(comments))
+                        .version(booking.itemVersion())
+                        .build())
+                .build();
+    }
+
+    public static Collection<BookingResponseDto> mapToBookingViewResponseDto(Collection<BookingView> bookings,
+                                                                             Map<Long, List<Comment>> comments) {
+        return bookings.stream()
+                .map(it -> mapToBookingResponseDto(it, comments.getOrDefault(it.itemId(), List.of())))
                 .collect(Collectors.toList());
     }
 
@@ -50,35 +96,27 @@ public class MappingBooking {
                 .startTime(bookingRequestDto.getStart())
                 .endTime(bookingRequestDto.getEnd())
                 .status(bookingRequestDto.getStatus().ordinal())
+                .ownerId(item.getOwnerId())
+                .build();
+    }
+
+    public static Booking mapToBooking(ArchivedBooking archivedBooking) {
+        return Booking.builder()
+                .id(archivedBooking.getId())
+                .item(archivedBooking.getItem())
+                .bookerId(archivedBooking.getBookerId())
+                .startTime(archivedBooking.getStartTime())
+                .endTime(archivedBooking.getEndTime())
+                .status(archivedBooking.getStatus())
+                .ownerId(archivedBooking.getOwnerId())
                 .build();
     }
 
-    public static Collection<Booking> mapToBookingState(List<Booking> bookings, String state) {
-        LocalDateTime currentDateTime = LocalDateTime.now();
-        RequestState requestState;
+    public static RequestState mapToRequestState(String state) {
         try {
-            requestState = RequestState.valueOf(state);
-        } catch (IllegalArgumentException e) {
+            return RequestState.valueOf(state);
+        } catch (IllegalArgumentException | NullPointerException e) {
             throw new BadRequestException("Unknown state: " + state);
         }
-        return switch (requestState) {
-            case RequestState.CURRENT -> bookings.stream()
-                    .filter(booking -> booking.getStartTime().isBefore(currentDateTime) &&
-                            booking.getEndTime().isAfter(currentDateTime))
-                    .toList();
-            case RequestState.PAST -> bookings.stream()
-                    .filter(booking -> booking.getEndTime().isBefore(currentDateTime))
-                    .toList();
-            case RequestState.FUTURE -> bookings.stream()
-                    .filter(booking -> booking.getStartTime().isAfter(currentDateTime))
-                    .toList();
-            case RequestState.WAITING -> bookings.stream()
-                    .filter(booking -> booking.getStatus().equals(0))
-                    .toList();
-            case RequestState.REJECTED -> bookings.stream()
-                    .filter(booking -> booking.getStatus().equals(2))
-                    .toList();
-            case RequestState.ALL -> bookings;
-        };
     }
 }
@@ -6,5 +6,6 @@ public enum RequestState {
     FUTURE,
     WAITING,
     REJECTED,
+    EXPIRED,
     ALL
 }
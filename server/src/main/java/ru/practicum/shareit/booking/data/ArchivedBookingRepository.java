@@ -0,0 +1,37 @@
+package ru.practicum.shareit.booking.data;
+
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long>,
+        ArchivedBookingViewRepository {
+
+    @Modifying
+    @Query(value = "insert into bookings_archive " +
+            "(id, item_id, booker_id, start_time, end_time, status, owner_id, archived) " +
+            "select b.id, b.item_id, b.booker_id, b.start_time, b.end_time, b.status, b.owner_id, ?2 " +
+            "from bookings as b where b.id in (?1)", nativeQuery = true)
+    int copyFromBookings(Collection<Long> bookingIds, LocalDateTime archived);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select b from ArchivedBooking as b join fetch b.item " +
+            "where b.ownerId = ?1 " +
+            "order by b.startTime desc, b.id desc")
+    Stream<ArchivedBooking> streamByOwnerId(Long ownerId);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select b from ArchivedBooking as b join fetch b.item " +
+            "where b.ownerId = ?1 and b.status = ?2 " +
+            "order by b.startTime desc, b.id desc")
+    Stream<ArchivedBooking> streamByOwnerIdAndStatus(Long ownerId, Integer status);
+}
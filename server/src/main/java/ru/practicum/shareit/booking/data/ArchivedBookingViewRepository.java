@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.data;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+
+import java.util.List;
+
+public interface ArchivedBookingViewRepository {
+
+    List<BookingView> findViews(Specification<ArchivedBooking> specification);
+
+    List<BookingView> findViews(Specification<ArchivedBooking> specification, int limit);
+}
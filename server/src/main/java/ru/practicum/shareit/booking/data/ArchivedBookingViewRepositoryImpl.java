@@ -0,0 +1,27 @@
+package ru.practicum.shareit.booking.data;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ArchivedBookingViewRepositoryImpl implements ArchivedBookingViewRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<BookingView> findViews(Specification<ArchivedBooking> specification) {
+        return BookingViewQuery.create(entityManager, ArchivedBooking.class, specification, false).getResultList();
+    }
+
+    @Override
+    public List<BookingView> findViews(Specification<ArchivedBooking> specification, int limit) {
+        return BookingViewQuery.create(entityManager, ArchivedBooking.class, specification, false)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.booking.data;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class BookingBatchRepository {
+
+    private static final String UPDATE_STATUS = "update bookings set status = :status, version = version + 1 " +
+            "where id = :id and version = :version";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public int[] updateStatuses(List<Booking> bookings, List<Integer> statuses) {
+        if (bookings.isEmpty()) {
+            return new int[0];
+        }
+        SqlParameterSource[] parameters = new SqlParameterSource[bookings.size()];
+        for (int i = 0; i < bookings.size(); i++) {
+            parameters[i] = new MapSqlParameterSource()
+                    .addValue("status", statuses.get(i))
+                    .addValue("id", bookings.get(i).getId())
+                    .addValue("version", bookings.get(i).getVersion());
+        }
+        return jdbcTemplate.batchUpdate(UPDATE_STATUS, parameters);
+    }
+}
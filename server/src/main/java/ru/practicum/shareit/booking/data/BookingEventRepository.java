@@ -0,0 +1,39 @@
+package ru.practicum.shareit.booking.data;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.model.BookingEvent;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface BookingEventRepository extends JpaRepository<BookingEvent, Long> {
+
+    @Query(value = "select e.* from booking_events as e " +
+            "where e.status = 'PENDING' " +
+            "order by e.id " +
+            "limit ?1 for update skip locked", nativeQuery = true)
+    List<BookingEvent> lockPendingEvents(int size);
+
+    @Modifying
+    @Query(value = "insert into booking_events (booking_id, item_id, type, created, status, attempts) " +
+            "select b.id, b.item_id, ?2, ?3, 'PENDING', 0 from bookings as b where b.id in (?1)", nativeQuery = true)
+    int appendForBookingIds(Collection<Long> bookingIds, String type, LocalDateTime created);
+
+    @Modifying
+    @Query(value = "update booking_events set status = 'DISPATCHED', dispatched = ?2 " +
+            "where id in (?1)", nativeQuery = true)
+    int markDispatched(Collection<Long> ids, LocalDateTime dispatched);
+
+    @Modifying
+    @Query(value = "update booking_events set attempts = attempts + 1, " +
+            "status = case when attempts + 1 >= ?2 then 'DEAD' else status end " +
+            "where id in (?1)", nativeQuery = true)
+    int markFailed(Collection<Long> ids, int maxAttempts);
+
+    @Modifying
+    @Query(value = "delete from booking_events where status = 'DISPATCHED' and dispatched < ?1", nativeQuery = true)
+    int deleteDispatchedBefore(LocalDateTime dispatchedBefore);
+}
@@ -1,18 +1,82 @@
 package ru.practicum.shareit.booking.data;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking>,
+        BookingStreamRepository {
 
-    List<Booking> findAllBookingByBookerIdOrderByStartTimeDesc(Long bookerId);
+    List<Booking> findAllBookingByItemIdOrderByStartTimeAsc(Long itemId);
 
-    List<Booking> findAllBookingByBookerIdAndItemOrderByStartTimeDesc(Long bookerId, Item item);
+    List<Booking> findAllBookingByItemIdAndStatusIn(Long itemId, Collection<Integer> statuses);
 
-    List<Booking> findAllBookingByItemIdInOrderByStartTimeDesc(List<Long> itemsId);
+    @Query(value = "select b.id, b.item_id, b.booker_id, b.start_time, b.end_time, b.status, b.owner_id, b.version " +
+            "from items as it " +
+            "join bookings as b on b.id in (it.last_booking_id, it.next_booking_id) " +
+            "where it.owner_id = ?1 " +
+            "order by b.item_id, b.start_time", nativeQuery = true)
+    List<Booking> findLastAndNextBookingsByOwnerId(Long ownerId);
 
-    List<Booking> findAllBookingByItemIdOrderByStartTimeAsc(Long itemId);
+    @Query(value = "select b.id, b.item_id, b.booker_id, b.start_time, b.end_time, b.status, b.owner_id, b.version " +
+            "from items as it " +
+            "join bookings as b on b.id in (it.last_booking_id, it.next_booking_id) " +
+            "where it.id in (?1) " +
+            "order by b.item_id, b.start_time", nativeQuery = true)
+    List<Booking> findLastAndNextBookingsByItemIds(Collection<Long> itemIds);
+
+    @Query(value = "select * from (" +
+            "(select b.id, b.item_id, b.booker_id, b.start_time, b.end_time, b.status, b.owner_id, b.version " +
+            "from bookings as b " +
+            "where b.item_id = ?1 and b.status in (0, 1) and b.start_time < ?2 " +
+            "order by b.start_time desc, b.id desc limit 1) " +
+            "union all " +
+            "(select b.id, b.item_id, b.booker_id, b.start_time, b.end_time, b.status, b.owner_id, b.version " +
+            "from bookings as b " +
+            "where b.item_id = ?1 and b.status in (0, 1) and b.start_time > ?2 " +
+            "order by b.start_time, b.id limit 1)" +
+            ") as last_and_next " +
+            "order by start_time", nativeQuery = true)
+    List<Booking> findLastAndNextBookingsByItemId(Long itemId, LocalDateTime currentDateTime);
+
+    @Query(value = "select exists (select 1 from bookings as b " +
+            "where b.booker_id = ?1 and b.item_id = ?2 and b.start_time <= ?3 and b.status <> 2) " +
+            "or exists (select 1 from bookings_archive as a " +
+            "where a.booker_id = ?1 and a.item_id = ?2 and a.status <> 2)", nativeQuery = true)
+    boolean existsCommentableBooking(Long bookerId, Long itemId, LocalDateTime currentDateTime);
+
+    @Query(value = "select b.id from bookings as b " +
+            "where b.status = 0 and b.start_time <= ?1 " +
+            "order by b.start_time, b.id " +
+            "limit ?2 for update skip locked", nativeQuery = true)
+    List<Long> lockWaitingBookingIdsStartedBefore(LocalDateTime currentDateTime, int size);
+
+    @Query(value = "select distinct b.item_id from bookings as b where b.id in (?1)", nativeQuery = true)
+    List<Long> findItemIdsByBookingIds(Collection<Long> bookingIds);
+
+    @Modifying
+    @Query(value = "update bookings set status = 3, version = version + 1 " +
+            "where id in (?1) and status = 0", nativeQuery = true)
+    int expireWaitingBookings(Collection<Long> bookingIds);
+
+    @Query(value = "select b.id from bookings as b " +
+            "where b.end_time < ?1 " +
+            "and not exists (select 1 from items as it where it.last_booking_id = b.id) " +
+            "and not exists (select 1 from items as it where it.next_booking_id = b.id) " +
+            "order by b.end_time, b.id " +
+            "limit ?2 for update skip locked", nativeQuery = true)
+    List<Long> lockArchivableBookingIds(LocalDateTime endedBefore, int size);
+
+    @Query("select b.startTime from Booking as b where b.id in ?1")
+    List<LocalDateTime> findStartTimesByBookingIds(Collection<Long> bookingIds);
+
+    @Modifying
+    @Query(value = "delete from bookings where id in (?1)", nativeQuery = true)
+    int deleteByBookingIds(Collection<Long> bookingIds);
 }
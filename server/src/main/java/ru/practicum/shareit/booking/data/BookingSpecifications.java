@@ -0,0 +1,54 @@
+package ru.practicum.shareit.booking.data;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.BookingCursor;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.RequestState;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public class BookingSpecifications {
+
+    public static Specification<Booking> withItem() {
+        return (root, query, builder) -> {
+            root.fetch("item");
+            return null;
+        };
+    }
+
+    public static <T> Specification<T> byBookerId(Long bookerId) {
+        return (root, query, builder) -> builder.equal(root.get("bookerId"), bookerId);
+    }
+
+    public static Specification<Booking> byIds(Collection<Long> ids) {
+        return (root, query, builder) -> root.get("id").in(ids);
+    }
+
+    public static <T> Specification<T> byOwnerId(Long ownerId) {
+        return (root, query, builder) -> builder.equal(root.get("ownerId"), ownerId);
+    }
+
+    public static <T> Specification<T> after(BookingCursor cursor) {
+        return (root, query, builder) -> builder.or(
+                builder.lessThan(root.get("startTime"), cursor.startTime()),
+                builder.and(
+                        builder.equal(root.get("startTime"), cursor.startTime()),
+                        builder.lessThan(root.get("id"), cursor.id())));
+    }
+
+    public static <T> Specification<T> inState(RequestState state, LocalDateTime now) {
+        return (root, query, builder) -> switch (state) {
+            case CURRENT -> builder.and(
+                    builder.lessThan(root.get("startTime"), now),
+                    builder.greaterThan(root.get("endTime"), now));
+            case PAST -> builder.lessThan(root.get("endTime"), now);
+            case FUTURE -> builder.greaterThan(root.get("startTime"), now);
+            case WAITING -> builder.equal(root.get("status"), BookingStatus.WAITING.ordinal());
+            case REJECTED -> builder.equal(root.get("status"), BookingStatus.REJECTED.ordinal());
+            case EXPIRED -> builder.equal(root.get("status"), BookingStatus.EXPIRED.ordinal());
+            case ALL -> null;
+        };
+    }
+}
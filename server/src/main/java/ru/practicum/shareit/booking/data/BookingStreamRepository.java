@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.data;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface BookingStreamRepository {
+
+    Stream<Booking> streamAll(Specification<Booking> specification);
+
+    List<BookingView> findViews(Specification<Booking> specification);
+
+    List<BookingView> findViews(Specification<Booking> specification, int limit);
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.booking.data;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+@RequiredArgsConstructor
+public class BookingStreamRepositoryImpl implements BookingStreamRepository {
+
+    private static final int FETCH_SIZE = 500;
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Stream<Booking> streamAll(Specification<Booking> specification) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = builder.createQuery(Booking.class);
+        Root<Booking> root = query.from(Booking.class);
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root).orderBy(builder.desc(root.get("startTime")), builder.desc(root.get("id")));
+        return entityManager.createQuery(query)
+                .setHint(HINT_FETCH_SIZE, FETCH_SIZE)
+                .getResultStream();
+    }
+
+    @Override
+    public List<BookingView> findViews(Specification<Booking> specification) {
+        return BookingViewQuery.create(entityManager, Booking.class, specification, true).getResultList();
+    }
+
+    @Override
+    public List<BookingView> findViews(Specification<Booking> specification, int limit) {
+        return BookingViewQuery.create(entityManager, Booking.class, specification, true)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.booking.data;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.item.model.Item;
+
+final class BookingViewQuery {
+
+    private BookingViewQuery() {
+    }
+
+    static <T> TypedQuery<BookingView> create(EntityManager entityManager, Class<T> type,
+                                              Specification<T> specification, boolean versioned) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingView> query = builder.createQuery(BookingView.class);
+        Root<T> root = query.from(type);
+        Join<T, Item> item = root.join("item");
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        Expression<Long> version = versioned ? root.get("version") : builder.nullLiteral(Long.class);
+        query.select(builder.construct(BookingView.class,
+                        root.get("id"),
+                        root.get("startTime"),
+                        root.get("endTime"),
+                        root.get("status"),
+                        root.get("bookerId"),
+                        version,
+                        item.get("id"),
+                        item.get("name"),
+                        item.get("description"),
+                        item.get("available"),
+                        item.get("requestId"),
+                        item.get("version")))
+                .orderBy(builder.desc(root.get("startTime")), builder.desc(root.get("id")));
+        return entityManager.createQuery(query);
+    }
+}
@@ -3,5 +3,20 @@ package ru.practicum.shareit.booking.data;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+
+    List<Comment> findAllByItemInOrderById(Collection<Long> itemIds);
+
+    default Map<Long, List<Comment>> getCommentsByItemIds(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Map.of();
+        }
+        return findAllByItemInOrderById(itemIds).stream()
+                .collect(Collectors.groupingBy(Comment::getItem));
+    }
 }
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
@@ -19,4 +20,6 @@ public class BookingResponseDto {
     private BookingStatus status;
     private Booker booker;
     private ItemDto item;
+    @JsonIgnore
+    private Long version;
 }
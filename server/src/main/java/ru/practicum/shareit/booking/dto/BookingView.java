@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+public record BookingView(Long id,
+                          LocalDateTime startTime,
+                          LocalDateTime endTime,
+                          Integer status,
+                          Long bookerId,
+                          Long version,
+                          Long itemId,
+                          String itemName,
+                          String itemDescription,
+                          Boolean itemAvailable,
+                          Long itemRequestId,
+                          Long itemVersion) {
+}
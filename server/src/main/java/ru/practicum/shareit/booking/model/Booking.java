@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 import org.springframework.beans.factory.annotation.Value;
@@ -36,4 +37,12 @@ public class Booking {
     @Value("${some.key:0}")
     @Column(name = "status")
     private Integer status;
+
+    @Column(name = "owner_id")
+    private Long ownerId;
+
+    @JsonIgnore
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,137 @@
+package ru.practicum.shareit.booking.outbox;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.data.BookingEventRepository;
+import ru.practicum.shareit.booking.model.BookingEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Component
+@Slf4j
+public class BookingEventDispatcher {
+
+    private final BookingEventRepository bookingEventRepository;
+    private final List<BookingEventSubscriber> subscribers;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retention;
+    private final ExecutorService executor;
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+
+    public BookingEventDispatcher(BookingEventRepository bookingEventRepository,
+                                  List<BookingEventSubscriber> subscribers,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${shareit.booking-outbox.batch-size:200}") int batchSize,
+                                  @Value("${shareit.booking-outbox.max-attempts:10}") int maxAttempts,
+                                  @Value("${shareit.booking-outbox.retention-days:7}") long retentionDays) {
+        this.bookingEventRepository = bookingEventRepository;
+        this.subscribers = subscribers;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retention = Duration.ofDays(retentionDays);
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-outbox");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void wakeUp() {
+        if (!wakeUpPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                wakeUpPending.set(false);
+                dispatchPending();
+            });
+        } catch (RejectedExecutionException e) {
+            wakeUpPending.set(false);
+            log.info("Диспетчер событий бронирований остановлен, события будут доставлены при следующем запуске");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-outbox.poll-delay-ms:5000}")
+    public synchronized int dispatchPending() {
+        int total = 0;
+        try {
+            int dispatched;
+            do {
+                dispatched = transactionTemplate.execute(status -> dispatchBatch());
+                total += dispatched;
+            } while (dispatched == batchSize);
+        } catch (RuntimeException e) {
+            log.error("Ошибка доставки событий бронирований, доставка будет повторена", e);
+        }
+        return total;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-outbox.prune-delay-ms:3600000}",
+            initialDelayString = "${shareit.booking-outbox.prune-initial-delay-ms:600000}")
+    public int pruneDispatched() {
+        LocalDateTime dispatchedBefore = LocalDateTime.now().minus(retention);
+        int pruned = transactionTemplate.execute(status ->
+                bookingEventRepository.deleteDispatchedBefore(dispatchedBefore));
+        if (pruned > 0) {
+            log.info("Удалено {} доставленных событий бронирований до {}", pruned, dispatchedBefore);
+        }
+        return pruned;
+    }
+
+    private int dispatchBatch() {
+        List<BookingEvent> events = bookingEventRepository.lockPendingEvents(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        List<BookingEvent> delivered = deliver(events);
+        if (!delivered.isEmpty()) {
+            bookingEventRepository.markDispatched(delivered.stream().map(BookingEvent::getId).toList(),
+                    LocalDateTime.now());
+        }
+        return delivered.size();
+    }
+
+    private List<BookingEvent> deliver(List<BookingEvent> events) {
+        try {
+            subscribers.forEach(subscriber -> subscriber.onEvents(events));
+            return events;
+        } catch (RuntimeException e) {
+            log.warn("Ошибка доставки пакета событий бронирований, события будут доставлены по одному", e);
+        }
+        List<BookingEvent> delivered = new ArrayList<>();
+        List<Long> failed = new ArrayList<>();
+        for (BookingEvent event : events) {
+            try {
+                subscribers.forEach(subscriber -> subscriber.onEvents(List.of(event)));
+                delivered.add(event);
+            } catch (RuntimeException e) {
+                log.warn("Ошибка доставки события бронирования с ID {}, попытка {}", event.getId(),
+                        event.getAttempts() + 1, e);
+                failed.add(event.getId());
+            }
+        }
+        if (!failed.isEmpty()) {
+            bookingEventRepository.markFailed(failed, maxAttempts);
+        }
+        return delivered;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.outbox;
+
+import ru.practicum.shareit.booking.model.BookingEvent;
+
+import java.util.List;
+
+public interface BookingEventSubscriber {
+
+    void onEvents(List<BookingEvent> events);
+}
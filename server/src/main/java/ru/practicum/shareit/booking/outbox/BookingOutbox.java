@@ -0,0 +1,64 @@
+package ru.practicum.shareit.booking.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.data.BookingEventRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingEventStatus;
+import ru.practicum.shareit.booking.model.BookingEventType;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class BookingOutbox {
+
+    private final BookingEventRepository bookingEventRepository;
+    private final BookingEventDispatcher bookingEventDispatcher;
+
+    public void append(Booking booking, BookingEventType type) {
+        appendAll(List.of(booking), type);
+    }
+
+    public void appendAll(Collection<Booking> bookings, BookingEventType type) {
+        requireTransaction();
+        if (bookings.isEmpty()) {
+            return;
+        }
+        LocalDateTime created = LocalDateTime.now();
+        bookingEventRepository.saveAll(bookings.stream()
+                .map(booking -> new BookingEvent(null, booking.getId(), booking.getItem().getId(), type, created,
+                        BookingEventStatus.PENDING, 0, null))
+                .toList());
+        wakeUpAfterCommit();
+    }
+
+    public void appendAllByIds(Collection<Long> bookingIds, BookingEventType type) {
+        requireTransaction();
+        if (bookingIds.isEmpty()) {
+            return;
+        }
+        bookingEventRepository.appendForBookingIds(bookingIds, type.name(), LocalDateTime.now());
+        wakeUpAfterCommit();
+    }
+
+    private void requireTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Событие бронирования может быть записано только внутри транзакции");
+        }
+    }
+
+    private void wakeUpAfterCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bookingEventDispatcher.wakeUp();
+            }
+        });
+    }
+}
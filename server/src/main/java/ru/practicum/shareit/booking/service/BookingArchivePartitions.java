@@ -0,0 +1,70 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingArchivePartitions {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Set<YearMonth> created = ConcurrentHashMap.newKeySet();
+    private volatile Boolean partitioned;
+
+    public void ensureMonthly(Collection<LocalDateTime> startTimes) {
+        if (!isPartitioned()) {
+            return;
+        }
+        startTimes.stream()
+                .map(YearMonth::from)
+                .distinct()
+                .filter(month -> !created.contains(month))
+                .forEach(this::create);
+    }
+
+    private void create(YearMonth month) {
+        jdbcTemplate.execute("create table if not exists bookings_archive_" + month.format(SUFFIX) +
+                " partition of bookings_archive for values from ('" + month.atDay(1) + "') to ('" +
+                month.plusMonths(1).atDay(1) + "')");
+        afterCommit(() -> {
+            created.add(month);
+            log.info("Секция архива бронирований за {} готова", month);
+        });
+    }
+
+    private boolean isPartitioned() {
+        if (partitioned == null) {
+            partitioned = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+        }
+        return partitioned;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.data.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.data.BookingRepository;
+import ru.practicum.shareit.booking.model.BookingEventType;
+import ru.practicum.shareit.booking.outbox.BookingOutbox;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Component
+@Slf4j
+public class BookingArchiver {
+
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final BookingArchivePartitions bookingArchivePartitions;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final BookingOutbox bookingOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final int batchSize;
+    private final Timer runTimer;
+    private final Counter archivedCounter;
+
+    public BookingArchiver(BookingRepository bookingRepository,
+                           ArchivedBookingRepository archivedBookingRepository,
+                           BookingArchivePartitions bookingArchivePartitions,
+                           ItemAvailabilityIndex itemAvailabilityIndex,
+                           BookingOutbox bookingOutbox,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${shareit.booking-archive.retention-days:365}") long retentionDays,
+                           @Value("${shareit.booking-archive.batch-size:500}") int batchSize,
+                           MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.archivedBookingRepository = archivedBookingRepository;
+        this.bookingArchivePartitions = bookingArchivePartitions;
+        this.itemAvailabilityIndex = itemAvailabilityIndex;
+        this.bookingOutbox = bookingOutbox;
+        this.transactionTemplate = transactionTemplate;
+        this.retention = Duration.ofDays(retentionDays);
+        this.batchSize = batchSize;
+        this.runTimer = meterRegistry.timer("shareit.booking.archive.runs");
+        this.archivedCounter = meterRegistry.counter("shareit.booking.archive.archived");
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-archive.delay-ms:3600000}",
+            initialDelayString = "${shareit.booking-archive.initial-delay-ms:600000}")
+    public int archive() {
+        return runTimer.record(() -> {
+            LocalDateTime currentDateTime = LocalDateTime.now();
+            LocalDateTime endedBefore = currentDateTime.minus(retention);
+            int total = 0;
+            int archived;
+            do {
+                archived = transactionTemplate.execute(status -> archiveBatch(endedBefore, currentDateTime));
+                total += archived;
+            } while (archived == batchSize);
+            if (total > 0) {
+                log.info("В архив перенесено {} бронирований, завершенных до {}", total, endedBefore);
+            }
+            return total;
+        });
+    }
+
+    private int archiveBatch(LocalDateTime endedBefore, LocalDateTime currentDateTime) {
+        List<Long> bookingIds = bookingRepository.lockArchivableBookingIds(endedBefore, batchSize);
+        if (bookingIds.isEmpty()) {
+            return 0;
+        }
+        bookingArchivePartitions.ensureMonthly(bookingRepository.findStartTimesByBookingIds(bookingIds));
+        List<Long> itemIds = bookingRepository.findItemIdsByBookingIds(bookingIds);
+        archivedBookingRepository.copyFromBookings(bookingIds, currentDateTime);
+        bookingOutbox.appendAllByIds(bookingIds, BookingEventType.ARCHIVED);
+        bookingRepository.deleteByBookingIds(bookingIds);
+        itemIds.forEach(itemAvailabilityIndex::invalidate);
+        archivedCounter.increment(bookingIds.size());
+        return bookingIds.size();
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.data.BookingRepository;
+import ru.practicum.shareit.booking.model.BookingEventType;
+import ru.practicum.shareit.booking.outbox.BookingOutbox;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.data.ItemRepository;
+import ru.practicum.shareit.item.service.ItemViewCache;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Component
+@Slf4j
+public class BookingExpirySweeper {
+
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final ItemViewCache itemViewCache;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final BookingOutbox bookingOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Timer runTimer;
+    private final Counter expiredCounter;
+
+    public BookingExpirySweeper(BookingRepository bookingRepository,
+                                ItemRepository itemRepository,
+                                ItemViewCache itemViewCache,
+                                ItemAvailabilityIndex itemAvailabilityIndex,
+                                BookingOutbox bookingOutbox,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${shareit.booking-expiry.batch-size:500}") int batchSize,
+                                MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+        this.itemViewCache = itemViewCache;
+        this.itemAvailabilityIndex = itemAvailabilityIndex;
+        this.bookingOutbox = bookingOutbox;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.runTimer = meterRegistry.timer("shareit.booking.expiry.runs");
+        this.expiredCounter = meterRegistry.counter("shareit.booking.expiry.expired");
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-expiry.sweep-delay-ms:60000}",
+            initialDelayString = "${shareit.booking-expiry.initial-delay-ms:60000}")
+    public int sweep() {
+        return runTimer.record(() -> {
+            LocalDateTime currentDateTime = LocalDateTime.now();
+            int total = 0;
+            int expired;
+            do {
+                expired = transactionTemplate.execute(status -> expireBatch(currentDateTime));
+                total += expired;
+            } while (expired == batchSize);
+            if (total > 0) {
+                log.info("Просрочено {} неподтвержденных бронирований", total);
+            }
+            return total;
+        });
+    }
+
+    private int expireBatch(LocalDateTime currentDateTime) {
+        List<Long> bookingIds = bookingRepository.lockWaitingBookingIdsStartedBefore(currentDateTime, batchSize);
+        if (bookingIds.isEmpty()) {
+            return 0;
+        }
+        List<Long> itemIds = bookingRepository.findItemIdsByBookingIds(bookingIds);
+        int expired = bookingRepository.expireWaitingBookings(bookingIds);
+        bookingOutbox.appendAllByIds(bookingIds, BookingEventType.EXPIRED);
+        itemRepository.updateBookingPointers(itemIds, currentDateTime);
+        itemIds.forEach(itemId -> {
+            itemViewCache.invalidate(itemId);
+            itemAvailabilityIndex.invalidate(itemId);
+        });
+        expiredCounter.increment(expired);
+        return bookingIds.size();
+    }
+}
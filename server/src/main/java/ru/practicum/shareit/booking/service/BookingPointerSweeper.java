@@ -0,0 +1,43 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.data.ItemRepository;
+import ru.practicum.shareit.item.service.ItemViewCache;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Component
+@Slf4j
+public class BookingPointerSweeper {
+
+    private final ItemRepository itemRepository;
+    private final ItemViewCache itemViewCache;
+    private final int batchSize;
+
+    public BookingPointerSweeper(ItemRepository itemRepository,
+                                 ItemViewCache itemViewCache,
+                                 @Value("${shareit.booking-pointers.batch-size:1000}") int batchSize) {
+        this.itemRepository = itemRepository;
+        this.itemViewCache = itemViewCache;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-pointers.sweep-delay-ms:60000}")
+    @Transactional
+    public int sweep() {
+        LocalDateTime currentDateTime = LocalDateTime.now();
+        List<Long> itemIds = itemRepository.findItemIdsWithStartedNextBooking(currentDateTime, batchSize);
+        if (itemIds.isEmpty()) {
+            return 0;
+        }
+        itemRepository.updateBookingPointers(itemIds, currentDateTime);
+        itemIds.forEach(itemViewCache::invalidate);
+        log.info("Обновлены последнее и следующее бронирования для {} вещей", itemIds.size());
+        return itemIds.size();
+    }
+}
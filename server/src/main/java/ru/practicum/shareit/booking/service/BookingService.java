@@ -1,19 +1,32 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
 
     BookingResponseDto addBooking(Long userId, BookingRequestDto bookingRequestDto);
 
-    BookingResponseDto approvedBooking(Long userId, Long bookingId, Boolean approved);
+    BookingResponseDto approvedBooking(Long userId, Long bookingId, Boolean approved, Long version);
+
+    List<BookingApprovalResultDto> approveBookings(Long userId, List<BookingApprovalDto> approvals);
 
     BookingResponseDto findBookingById(Long userId, Long bookingId);
 
     Collection<BookingResponseDto> getAllBookingsByUser(Long userId, String state);
 
+    BookingPageDto getBookingsPageByUser(Long userId, String state, String cursor, int size);
+
     Collection<BookingResponseDto> getAllBookingsByItemsByUser(Long userId, String state);
+
+    BookingPageDto getBookingsPageByItemsByUser(Long userId, String state, String cursor, int size);
+
+    Consumer<Consumer<BookingResponseDto>> exportBookingsByItemsByUser(Long userId, String state, boolean archived);
 }
@@ -1,25 +1,65 @@
 package ru.practicum.shareit.booking.service;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.BookingCursor;
 import ru.practicum.shareit.booking.MappingBooking;
+import ru.practicum.shareit.booking.RequestState;
+import ru.practicum.shareit.booking.data.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.data.BookingBatchRepository;
 import ru.practicum.shareit.booking.data.BookingRepository;
+import ru.practicum.shareit.booking.data.CommentRepository;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingEventType;
+import ru.practicum.shareit.booking.outbox.BookingOutbox;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
 import ru.practicum.shareit.item.data.ItemRepository;
+import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.data.UserRepository;
+import ru.practicum.shareit.item.service.CommentEligibilityIndex;
+import ru.practicum.shareit.item.service.ItemViewCache;
 import ru.practicum.shareit.validation.booking.ValidationBooking;
 import ru.practicum.shareit.validation.exeption.BadRequestException;
+import ru.practicum.shareit.validation.exeption.IncorrectParameterException;
+import ru.practicum.shareit.validation.exeption.PreconditionFailedException;
 import ru.practicum.shareit.validation.item.ValidationItem;
 import ru.practicum.shareit.validation.user.ValidationUser;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static ru.practicum.shareit.booking.data.BookingSpecifications.after;
+import static ru.practicum.shareit.booking.data.BookingSpecifications.byBookerId;
+import static ru.practicum.shareit.booking.data.BookingSpecifications.byIds;
+import static ru.practicum.shareit.booking.data.BookingSpecifications.byOwnerId;
+import static ru.practicum.shareit.booking.data.BookingSpecifications.inState;
+import static ru.practicum.shareit.booking.data.BookingSpecifications.withItem;
 
 @Service
 @RequiredArgsConstructor
@@ -27,12 +67,27 @@ import java.util.List;
 @Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
 
+    private static final int EXPORT_CHUNK_SIZE = 500;
+    private static final String EXPIRED_MESSAGE = "Срок подтверждения бронирования истек";
+    private static final Comparator<BookingView> NEWEST_FIRST = Comparator.comparing(BookingView::startTime)
+            .thenComparing(BookingView::id)
+            .reversed();
+
     private final ValidationUser validationUser;
     private final ValidationItem validationItem;
     private final ValidationBooking validationBooking;
     private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final BookingBatchRepository bookingBatchRepository;
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final CommentRepository commentRepository;
+    private final ItemViewCache itemViewCache;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final CommentEligibilityIndex commentEligibilityIndex;
+    private final ItemBookingLocks itemBookingLocks;
+    private final BookingOutbox bookingOutbox;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     @Transactional
@@ -42,37 +97,156 @@ public class BookingServiceImpl implements BookingService {
         if (bookingRequestDto.getStatus() == null) {
             bookingRequestDto.setStatus(BookingStatus.WAITING);
         }
-        Booking booking = bookingRepository.save(MappingBooking.mapToBooking(userId, bookingRequestDto, item));
+        itemBookingLocks.lockUntilCompletion(item.getId());
+        checkApprovedOverlap(item.getId(), bookingRequestDto.getStart(), bookingRequestDto.getEnd());
+        Booking booking = saveBooking(MappingBooking.mapToBooking(userId, bookingRequestDto, item));
+        itemRepository.updateBookingPointers(List.of(item.getId()), LocalDateTime.now());
+        bookingOutbox.append(booking, BookingEventType.CREATED);
+        itemViewCache.invalidate(item.getId());
+        if (!booking.getStatus().equals(BookingStatus.REJECTED.ordinal())) {
+            itemAvailabilityIndex.add(booking);
+        }
         return MappingBooking.mapToBookingResponseDto(booking, item);
     }
 
     @Override
     @Transactional
-    public BookingResponseDto approvedBooking(Long userId, Long bookingId, Boolean approved) {
-        userRepository.findById(userId)
+    public BookingResponseDto approvedBooking(Long userId, Long bookingId, Boolean approved, Long version) {
+        validationUser.findUserById(userId)
                 .orElseThrow(() -> new BadRequestException("Пользователь с ID " + userId + " не зарегистрирован"));
         Booking booking = validationBooking.validationBookingById(bookingId);
-        validationItem.validationItemByUser(booking.getItem().getId(), userId);
+        validationItem.validationItemOwner(booking.getItem().getId(), userId);
+        if (booking.getStatus().equals(BookingStatus.EXPIRED.ordinal())) {
+            throw new BadRequestException(EXPIRED_MESSAGE);
+        }
         if (booking.getStatus().equals(1) && approved) {
             throw new BadRequestException("Бронирование уже подтверждено");
         }
-        if (!booking.getItem().getOwnerId().equals(userId)) {
-            throw new BadRequestException("Бронирование может подтверждать только собственник вещи");
+        if (version != null && !version.equals(booking.getVersion())) {
+            log.info("Версия бронирования с ID {} изменилась: ожидалась {}, текущая {}", bookingId, version, booking.getVersion());
+            throw new PreconditionFailedException("Бронирование с ID " + bookingId + " было изменено другим запросом");
         }
         if (approved) {
+            itemBookingLocks.lockUntilCompletion(booking.getItem().getId());
+            checkApprovedOverlap(booking.getItem().getId(), booking.getStartTime(), booking.getEndTime());
             booking.setStatus(BookingStatus.APPROVED.ordinal());
         } else {
             booking.setStatus(BookingStatus.REJECTED.ordinal());
         }
-        Booking bookingResult = bookingRepository.save(booking);
+        Booking bookingResult = saveBooking(booking);
+        itemRepository.updateBookingPointers(List.of(bookingResult.getItem().getId()), LocalDateTime.now());
+        bookingOutbox.append(bookingResult, approved ? BookingEventType.APPROVED : BookingEventType.REJECTED);
+        itemViewCache.invalidate(bookingResult.getItem().getId());
+        itemAvailabilityIndex.invalidate(bookingResult.getItem().getId());
+        if (approved) {
+            commentEligibilityIndex.add(bookingResult);
+        } else {
+            commentEligibilityIndex.invalidate(bookingResult.getItem().getId());
+        }
         return MappingBooking.mapToBookingResponseDto(bookingResult);
     }
 
+    @Override
+    @Transactional
+    public List<BookingApprovalResultDto> approveBookings(Long userId, List<BookingApprovalDto> approvals) {
+        validationUser.findUserById(userId)
+                .orElseThrow(() -> new BadRequestException("Пользователь с ID " + userId + " не зарегистрирован"));
+        List<Long> bookingIds = approvals.stream()
+                .map(BookingApprovalDto::getBookingId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<Long, Booking> bookings = bookingRepository.findAll(withItem()
+                        .and(byOwnerId(userId))
+                        .and(byIds(bookingIds))).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        itemBookingLocks.lockAllUntilCompletion(bookings.values().stream()
+                .map(booking -> booking.getItem().getId())
+                .toList());
+
+        List<BookingApprovalResultDto> results = new ArrayList<>(approvals.size());
+        List<BookingApprovalResultDto> updatedResults = new ArrayList<>();
+        List<Booking> updated = new ArrayList<>();
+        List<Integer> statuses = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        Map<Long, List<Booking>> approvedByItem = new HashMap<>();
+        for (BookingApprovalDto approval : approvals) {
+            BookingApprovalResultDto result = BookingApprovalResultDto.builder()
+                    .bookingId(approval.getBookingId())
+                    .build();
+            results.add(result);
+            Booking booking = bookings.get(approval.getBookingId());
+            if (approval.getBookingId() == null || approval.getApproved() == null) {
+                result.setError("Некорректные данные подтверждения");
+            } else if (!seen.add(approval.getBookingId())) {
+                result.setError("Бронирование уже указано в запросе");
+            } else if (booking == null) {
+                result.setError("Бронирование с ID " + approval.getBookingId() + " не найдено у владельца с ID " + userId);
+            } else if (booking.getStatus().equals(BookingStatus.EXPIRED.ordinal())) {
+                result.setError(EXPIRED_MESSAGE);
+            } else if (approval.getApproved() && booking.getStatus().equals(BookingStatus.APPROVED.ordinal())) {
+                result.setError("Бронирование уже подтверждено");
+            } else if (approval.getApproved() && overlapsApproved(booking, approvedByItem)) {
+                result.setError("Вещь уже забронирована на указанный период");
+            } else {
+                BookingStatus status = approval.getApproved() ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+                if (approval.getApproved()) {
+                    approvedByItem.computeIfAbsent(booking.getItem().getId(), itemId -> new ArrayList<>()).add(booking);
+                }
+                result.setStatus(status);
+                updated.add(booking);
+                statuses.add(status.ordinal());
+                updatedResults.add(result);
+            }
+        }
+
+        int[] counts;
+        try {
+            counts = bookingBatchRepository.updateStatuses(updated, statuses);
+        } catch (DataIntegrityViolationException e) {
+            log.info("Пакетное подтверждение бронирований пользователя с ID {} пересекается с подтвержденными", userId);
+            throw new IncorrectParameterException("Вещь уже забронирована на указанный период");
+        }
+        List<Booking> approvedBookings = new ArrayList<>();
+        List<Booking> rejectedBookings = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            BookingApprovalResultDto result = updatedResults.get(i);
+            if (counts[i] == 0) {
+                result.setStatus(null);
+                result.setError("Бронирование было изменено параллельным запросом");
+            } else if (result.getStatus() == BookingStatus.APPROVED) {
+                approvedBookings.add(updated.get(i));
+            } else {
+                rejectedBookings.add(updated.get(i));
+            }
+        }
+        List<Long> itemIds = updated.stream()
+                .map(booking -> booking.getItem().getId())
+                .distinct()
+                .toList();
+        if (!itemIds.isEmpty()) {
+            itemRepository.updateBookingPointers(itemIds, LocalDateTime.now());
+            itemIds.forEach(itemId -> {
+                itemViewCache.invalidate(itemId);
+                itemAvailabilityIndex.invalidate(itemId);
+            });
+        }
+        bookingOutbox.appendAll(approvedBookings, BookingEventType.APPROVED);
+        bookingOutbox.appendAll(rejectedBookings, BookingEventType.REJECTED);
+        rejectedBookings.stream()
+                .map(booking -> booking.getItem().getId())
+                .distinct()
+                .forEach(commentEligibilityIndex::invalidate);
+        approvedBookings.forEach(commentEligibilityIndex::add);
+        log.info("Пакетно обработано бронирований: {} из {}", updated.size(), approvals.size());
+        return results;
+    }
+
     @Override
     public BookingResponseDto findBookingById(Long userId, Long bookingId) {
-        Booking booking = validationBooking.validationBookingById(bookingId);
+        Booking booking = validationBooking.validationBookingWithArchiveById(bookingId);
         if (!booking.getBookerId().equals(userId)) {
-            validationItem.validationItemByUser(booking.getItem().getId(), userId);
+            validationItem.validationItemOwner(booking.getItem().getId(), userId);
         }
         return MappingBooking.mapToBookingResponseDto(booking);
     }
@@ -80,20 +254,164 @@ public class BookingServiceImpl implements BookingService {
     @Override
     public Collection<BookingResponseDto> getAllBookingsByUser(Long userId, String state) {
         validationUser.validationUserById(userId);
-        List<Booking> bookings = bookingRepository.findAllBookingByBookerIdOrderByStartTimeDesc(userId);
-        return getListBookingStateDtoFromBookings(bookings, state);
+        RequestState requestState = MappingBooking.mapToRequestState(state);
+        List<BookingView> bookings = findViews(byBookerId(userId), byBookerId(userId), requestState, null, null);
+        return getListBookingDtoFromViews(bookings);
+    }
+
+    @Override
+    public BookingPageDto getBookingsPageByUser(Long userId, String state, String cursor, int size) {
+        validationUser.validationUserById(userId);
+        RequestState requestState = MappingBooking.mapToRequestState(state);
+        return getBookingsPage(byBookerId(userId), byBookerId(userId), requestState, cursor, size);
     }
 
     @Override
     public Collection<BookingResponseDto> getAllBookingsByItemsByUser(Long userId, String state) {
         validationUser.validationUserById(userId);
-        List<Long> itemsId = itemRepository.findByOwnerId(userId).stream().map(Item::getId).toList();
-        List<Booking> bookings = bookingRepository.findAllBookingByItemIdInOrderByStartTimeDesc(itemsId);
-        return getListBookingStateDtoFromBookings(bookings, state);
+        RequestState requestState = MappingBooking.mapToRequestState(state);
+        List<BookingView> bookings = findViews(byOwnerId(userId), byOwnerId(userId), requestState, null, null);
+        return getListBookingDtoFromViews(bookings);
+    }
+
+    @Override
+    public BookingPageDto getBookingsPageByItemsByUser(Long userId, String state, String cursor, int size) {
+        validationUser.validationUserById(userId);
+        RequestState requestState = MappingBooking.mapToRequestState(state);
+        return getBookingsPage(byOwnerId(userId), byOwnerId(userId), requestState, cursor, size);
+    }
+
+    @Override
+    public Consumer<Consumer<BookingResponseDto>> exportBookingsByItemsByUser(Long userId, String state,
+                                                                              boolean archived) {
+        validationUser.validationUserById(userId);
+        RequestState requestState = MappingBooking.mapToRequestState(state);
+        return consumer -> transactionTemplate.executeWithoutResult(status ->
+                exportBookings(userId, requestState, archived, consumer));
+    }
+
+    private void exportBookings(Long userId, RequestState state, boolean archived,
+                                Consumer<BookingResponseDto> consumer) {
+        try (Stream<Booking> bookings = bookingRepository.streamAll(withItem()
+                .and(byOwnerId(userId))
+                .and(inState(state, LocalDateTime.now())))) {
+            exportStream(bookings, consumer);
+        }
+        if (archived) {
+            try (Stream<ArchivedBooking> bookings = streamArchivedBookings(userId, state)) {
+                exportStream(bookings.map(MappingBooking::mapToBooking), consumer);
+            }
+        }
+        log.info("Выгрузка бронирований вещей пользователя с ID {} завершена", userId);
+    }
+
+    private Stream<ArchivedBooking> streamArchivedBookings(Long userId, RequestState state) {
+        return switch (state) {
+            case ALL, PAST -> archivedBookingRepository.streamByOwnerId(userId);
+            case REJECTED -> archivedBookingRepository.streamByOwnerIdAndStatus(userId,
+                    BookingStatus.REJECTED.ordinal());
+            case EXPIRED -> archivedBookingRepository.streamByOwnerIdAndStatus(userId,
+                    BookingStatus.EXPIRED.ordinal());
+            default -> Stream.empty();
+        };
+    }
+
+    private void exportStream(Stream<Booking> bookings, Consumer<BookingResponseDto> consumer) {
+        List<Booking> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+        bookings.forEach(booking -> {
+            chunk.add(booking);
+            if (chunk.size() == EXPORT_CHUNK_SIZE) {
+                exportChunk(chunk, consumer);
+            }
+        });
+        exportChunk(chunk, consumer);
+    }
+
+    private void exportChunk(List<Booking> chunk, Consumer<BookingResponseDto> consumer) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        getListBookingDtoFromBookings(chunk).forEach(consumer);
+        chunk.clear();
+        entityManager.clear();
+    }
+
+    private void checkApprovedOverlap(Long itemId, LocalDateTime start, LocalDateTime end) {
+        if (itemAvailabilityIndex.hasApprovedOverlap(itemId, start, end)) {
+            log.info("Вещь с ID {} уже забронирована с {} по {}", itemId, start, end);
+            throw new IncorrectParameterException("Вещь уже забронирована на указанный период");
+        }
+    }
+
+    private boolean overlapsApproved(Booking booking, Map<Long, List<Booking>> approvedByItem) {
+        Long itemId = booking.getItem().getId();
+        if (itemAvailabilityIndex.hasApprovedOverlap(itemId, booking.getStartTime(), booking.getEndTime())) {
+            return true;
+        }
+        return approvedByItem.getOrDefault(itemId, List.of()).stream()
+                .anyMatch(approved -> approved.getStartTime().isBefore(booking.getEndTime())
+                        && booking.getStartTime().isBefore(approved.getEndTime()));
+    }
+
+    private Booking saveBooking(Booking booking) {
+        try {
+            return bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            log.info("Бронирование вещи с ID {} пересекается с подтвержденным", booking.getItem().getId());
+            throw new IncorrectParameterException("Вещь уже забронирована на указанный период");
+        }
+    }
+
+    private BookingPageDto getBookingsPage(Specification<Booking> specification,
+                                           Specification<ArchivedBooking> archivedSpecification,
+                                           RequestState state, String cursor, int size) {
+        BookingCursor after = cursor == null ? null : BookingCursor.decode(cursor);
+        List<BookingView> bookings = findViews(specification, archivedSpecification, state, after, size + 1);
+        String nextCursor = null;
+        if (bookings.size() > size) {
+            bookings = bookings.subList(0, size);
+            nextCursor = BookingCursor.of(bookings.getLast()).encode();
+        }
+        return new BookingPageDto(getListBookingDtoFromViews(bookings), nextCursor);
+    }
+
+    private List<BookingView> findViews(Specification<Booking> specification,
+                                       Specification<ArchivedBooking> archivedSpecification,
+                                       RequestState state, BookingCursor cursor, Integer limit) {
+        LocalDateTime currentDateTime = LocalDateTime.now();
+        specification = specification.and(inState(state, currentDateTime));
+        archivedSpecification = archivedSpecification.and(inState(state, currentDateTime));
+        if (cursor != null) {
+            specification = specification.and(after(cursor));
+            archivedSpecification = archivedSpecification.and(after(cursor));
+        }
+        List<BookingView> bookings = limit == null
+                ? bookingRepository.findViews(specification)
+                : bookingRepository.findViews(specification, limit);
+        if (state == RequestState.CURRENT || state == RequestState.FUTURE) {
+            return bookings;
+        }
+        List<BookingView> archived = limit == null
+                ? archivedBookingRepository.findViews(archivedSpecification)
+                : archivedBookingRepository.findViews(archivedSpecification, limit);
+        if (archived.isEmpty()) {
+            return bookings;
+        }
+        return Stream.concat(bookings.stream(), archived.stream())
+                .sorted(NEWEST_FIRST)
+                .limit(limit == null ? Long.MAX_VALUE : limit)
+                .toList();
+    }
+
+    private Collection<BookingResponseDto> getListBookingDtoFromViews(List<BookingView> bookings) {
+        Map<Long, List<Comment>> comments = commentRepository.getCommentsByItemIds(
+                bookings.stream().map(BookingView::itemId).distinct().toList());
+        return MappingBooking.mapToBookingViewResponseDto(bookings, comments);
     }
 
-    private Collection<BookingResponseDto> getListBookingStateDtoFromBookings(List<Booking> bookings, String state) {
-        Collection<Booking> bookingsSort = MappingBooking.mapToBookingState(bookings, state);
-        return MappingBooking.mapToBookingResponseDto(bookingsSort);
+    private Collection<BookingResponseDto> getListBookingDtoFromBookings(List<Booking> bookings) {
+        Map<Long, List<Comment>> comments = commentRepository.getCommentsByItemIds(
+                bookings.stream().map(booking -> booking.getItem().getId()).distinct().toList());
+        return MappingBooking.mapToBookingResponseDto(bookings, comments);
     }
 }
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.validation.exeption.BadRequestException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+public class ItemBatchReader implements Iterator<ItemDto>, Closeable {
+
+    private final MappingIterator<ItemDto> items;
+
+    public ItemBatchReader(ObjectMapper mapper, InputStream body) throws IOException {
+        items = mapper.readerFor(ItemDto.class).readValues(body);
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            return items.hasNextValue();
+        } catch (IOException e) {
+            throw new BadRequestException("Некорректный формат списка вещей");
+        }
+    }
+
+    @Override
+    public ItemDto next() {
+        try {
+            return items.nextValue();
+        } catch (JsonMappingException e) {
+            return null;
+        } catch (IOException e) {
+            throw new BadRequestException("Некорректный формат списка вещей");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        items.close();
+    }
+}
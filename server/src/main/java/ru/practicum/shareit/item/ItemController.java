@@ -1,21 +1,37 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.util.EntityTags;
+import ru.practicum.shareit.util.NdjsonResponse;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.Collection;
 
 
 @RestController
 @RequestMapping("/items")
 @RequiredArgsConstructor
+@Validated
 public class ItemController {
 
     private final ItemService itemService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ItemDto createItem(@RequestHeader("X-Sharer-User-Id") Long userId,
@@ -23,6 +39,14 @@ public class ItemController {
         return itemService.addItem(userId, itemDto);
     }
 
+    @PostMapping("/batch")
+    public Collection<ItemBatchResultDto> createItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                      InputStream body) throws IOException {
+        try (ItemBatchReader items = new ItemBatchReader(objectMapper, body)) {
+            return itemService.addItems(userId, items);
+        }
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto createComment(@RequestHeader("X-Sharer-User-Id") Long bookerId,
                                     @PathVariable Long itemId,
@@ -31,16 +55,29 @@ public class ItemController {
     }
 
     @PatchMapping("/{itemId}")
-    public ItemDto updateItem(@RequestHeader("X-Sharer-User-Id") Long userId,
-                              @PathVariable Long itemId,
-                              @RequestBody ItemDto itemDto) {
-        return itemService.updateItemDto(userId, itemId, itemDto);
+    public ResponseEntity<ItemDto> updateItem(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                              @RequestHeader(value = "If-Match", required = false) String ifMatch,
+                                              @PathVariable Long itemId,
+                                              @RequestBody ItemDto itemDto) {
+        ItemDto item = itemService.updateItemDto(userId, itemId, itemDto, EntityTags.parseVersion(ifMatch));
+        return EntityTags.ok(item, item.getVersion());
     }
 
     @GetMapping("/{itemId}")
-    public ItemDto getItemById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                               @PathVariable Long itemId) {
-        return itemService.getItemDtoById(userId, itemId);
+    public ResponseEntity<ItemDto> getItemById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                               @PathVariable Long itemId) {
+        ItemDto item = itemService.getItemDtoById(userId, itemId);
+        return EntityTags.ok(item, item.getVersion());
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public Collection<ItemAvailabilityDto> getItemAvailability(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                               @PathVariable Long itemId,
+                                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                               @RequestParam(name = "from") LocalDateTime from,
+                                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                               @RequestParam(name = "to") LocalDateTime to) {
+        return itemService.getItemAvailability(userId, itemId, from, to);
     }
 
     @GetMapping()
@@ -48,9 +85,23 @@ public class ItemController {
         return itemService.getItemsDtoByUserId(userId);
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportItemsByUser(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return NdjsonResponse.of(objectMapper, itemService.exportItemsDtoByUserId(userId));
+    }
+
     @GetMapping("/search")
     public Collection<ItemDto> getItemsBySearch(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                @RequestParam(value = "text") String text) {
-        return itemService.getItemsDtoBySearch(userId, text);
+                                                @RequestParam(value = "text") String text,
+                                                @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                @Positive @RequestParam(name = "size", required = false) Integer size) {
+        return itemService.getItemsDtoBySearch(userId, text, from, size);
+    }
+
+    @GetMapping("/suggest")
+    public Collection<String> getItemNamesByPrefix(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                   @RequestParam(value = "prefix") String prefix,
+                                                   @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        return itemService.getItemNamesByPrefix(userId, prefix, size);
     }
 }
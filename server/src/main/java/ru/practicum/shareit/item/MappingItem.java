@@ -11,22 +11,32 @@ import ru.practicum.shareit.user.model.User;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 
 public class MappingItem {
 
     public static ItemDto mapToItemDto(Item item) {
+        return mapToItemDto(item, item.getComments());
+    }
+
+    public static ItemDto mapToItemDto(Item item, Collection<Comment> comments) {
         return ItemDto.builder()
                 .id(item.getId())
                 .name(item.getName())
                 .description(item.getDescription())
                 .available(item.getAvailable())
                 .requestId(item.getRequestId())
-                .comments(mapToCommentDto(item.getComments()))
+                .comments(mapToCommentDto(comments))
+                .version(item.getVersion())
                 .build();
     }
 
     public static ItemDto mapToItemDto(Item item, List<Booking> bookings) {
+        return mapToItemDto(item, bookings, item.getComments());
+    }
+
+    public static ItemDto mapToItemDto(Item item, List<Booking> bookings, Collection<Comment> comments) {
         Booking lastBooking = bookings.getFirst();
         Booking nextBooking = bookings.getLast();
         ItemDto itemDto = ItemDto.builder()
@@ -37,7 +47,8 @@ public class MappingItem {
                 .requestId(item.getRequestId())
                 .lastBooking(bookings.getFirst())
                 .nextBooking(bookings.getLast())
-                .comments(mapToCommentDto(item.getComments()))
+                .comments(mapToCommentDto(comments))
+                .version(item.getVersion())
                 .build();
         if (lastBooking.equals(nextBooking)) {
             itemDto.setNextBooking(null);
@@ -45,6 +56,26 @@ public class MappingItem {
         return itemDto;
     }
 
+    public static List<ItemDto> mapToItemDto(Collection<Item> items, Map<Long, List<Comment>> comments) {
+        return items.stream()
+                .map(item -> mapToItemDto(item, comments.getOrDefault(item.getId(), List.of())))
+                .toList();
+    }
+
+    public static List<ItemDto> mapToItemDto(Collection<Item> items,
+                                             Map<Long, List<Booking>> bookings,
+                                             Map<Long, List<Comment>> comments) {
+        return items.stream()
+                .map(item -> {
+                    List<Booking> itemBookings = bookings.getOrDefault(item.getId(), List.of());
+                    List<Comment> itemComments = comments.getOrDefault(item.getId(), List.of());
+                    return itemBookings.isEmpty()
+                            ? mapToItemDto(item, itemComments)
+                            : mapToItemDto(item, itemBookings, itemComments);
+                })
+                .toList();
+    }
+
     public static Item mapToItem(ItemDto itemDto, Long userId) {
         Item item = new Item();
         item.setName(itemDto.getName());
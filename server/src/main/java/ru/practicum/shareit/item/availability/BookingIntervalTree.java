@@ -0,0 +1,119 @@
+package ru.practicum.shareit.item.availability;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+class BookingIntervalTree {
+
+    private Node root;
+    private int size;
+
+    synchronized void add(LocalDateTime start, LocalDateTime end, boolean approved) {
+        root = insert(root, new Node(new Interval(start, end, approved)));
+        size++;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    synchronized List<Interval> overlapping(LocalDateTime from, LocalDateTime to) {
+        List<Interval> intervals = new ArrayList<>();
+        collect(root, from, to, intervals);
+        return intervals;
+    }
+
+    private static void collect(Node node, LocalDateTime from, LocalDateTime to, List<Interval> intervals) {
+        if (node == null || !node.maxEnd.isAfter(from)) {
+            return;
+        }
+        collect(node.left, from, to, intervals);
+        if (!node.interval.start().isBefore(to)) {
+            return;
+        }
+        if (node.interval.end().isAfter(from)) {
+            intervals.add(node.interval);
+        }
+        collect(node.right, from, to, intervals);
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (added.interval.start().isBefore(node.interval.start())) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return balance(node);
+    }
+
+    private static Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.maxEnd = node.interval.end();
+        if (node.left != null && node.left.maxEnd.isAfter(node.maxEnd)) {
+            node.maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(node.maxEnd)) {
+            node.maxEnd = node.right.maxEnd;
+        }
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    record Interval(LocalDateTime start, LocalDateTime end, boolean approved) {
+    }
+
+    private static class Node {
+        private final Interval interval;
+        private LocalDateTime maxEnd;
+        private int height = 1;
+        private Node left;
+        private Node right;
+
+        private Node(Interval interval) {
+            this.interval = interval;
+            this.maxEnd = interval.end();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.item.availability;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.data.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+@Component
+public class ItemAvailabilityIndex {
+
+    private static final List<Integer> ACTIVE_STATUSES = List.of(BookingStatus.WAITING.ordinal(),
+            BookingStatus.APPROVED.ordinal());
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, BookingIntervalTree> trees;
+
+    public ItemAvailabilityIndex(BookingRepository bookingRepository,
+                                 @Value("${shareit.item-availability.max-items:10000}") long maxItems,
+                                 MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        trees = Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, trees, "itemAvailability");
+    }
+
+    public List<ItemAvailabilityDto> getFreeWindows(Long itemId, LocalDateTime from, LocalDateTime to) {
+        List<BookingIntervalTree.Interval> busy = trees.get(itemId, this::load).overlapping(from, to);
+        busy.sort(Comparator.comparing(BookingIntervalTree.Interval::start));
+        List<ItemAvailabilityDto> windows = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (BookingIntervalTree.Interval interval : busy) {
+            if (interval.start().isAfter(cursor)) {
+                windows.add(new ItemAvailabilityDto(cursor, interval.start()));
+            }
+            if (interval.end().isAfter(cursor)) {
+                cursor = interval.end();
+            }
+        }
+        if (cursor.isBefore(to)) {
+            windows.add(new ItemAvailabilityDto(cursor, to));
+        }
+        return windows;
+    }
+
+    public boolean hasApprovedOverlap(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return trees.get(itemId, this::load).overlapping(start, end).stream()
+                .anyMatch(BookingIntervalTree.Interval::approved);
+    }
+
+    public void add(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        LocalDateTime start = booking.getStartTime();
+        LocalDateTime end = booking.getEndTime();
+        boolean approved = isApproved(booking);
+        afterCommit(() -> trees.asMap().computeIfPresent(itemId, (id, tree) -> {
+            tree.add(start, end, approved);
+            return tree;
+        }));
+    }
+
+    public void invalidate(Long itemId) {
+        trees.invalidate(itemId);
+        afterCommit(() -> trees.invalidate(itemId));
+    }
+
+    private BookingIntervalTree load(Long itemId) {
+        BookingIntervalTree tree = new BookingIntervalTree();
+        bookingRepository.findAllBookingByItemIdAndStatusIn(itemId, ACTIVE_STATUSES)
+                .forEach(booking -> tree.add(booking.getStartTime(), booking.getEndTime(), isApproved(booking)));
+        return tree;
+    }
+
+    private static boolean isApproved(Booking booking) {
+        return booking.getStatus().equals(BookingStatus.APPROVED.ordinal());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
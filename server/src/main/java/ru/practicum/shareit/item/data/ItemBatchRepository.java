@@ -0,0 +1,43 @@
+package ru.practicum.shareit.item.data;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class ItemBatchRepository {
+
+    private static final String INSERT_ITEM = "insert into items (name, description, owner_id, available, request_id) " +
+            "values (:name, :description, :ownerId, :available, :requestId)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void saveAll(List<Item> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] parameters = items.stream()
+                .map(item -> new MapSqlParameterSource()
+                        .addValue("name", item.getName())
+                        .addValue("description", item.getDescription())
+                        .addValue("ownerId", item.getOwnerId())
+                        .addValue("available", item.getAvailable())
+                        .addValue("requestId", item.getRequestId()))
+                .toArray(SqlParameterSource[]::new);
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(INSERT_ITEM, parameters, keyHolder, new String[]{"id"});
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < items.size(); i++) {
+            items.get(i).setId(((Number) keys.get(i).values().iterator().next()).longValue());
+        }
+    }
+}
@@ -1,10 +1,20 @@
 package ru.practicum.shareit.item.data;
 
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemDocument;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
@@ -12,10 +22,56 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
 
     List<Item> findByRequestId(Long id);
 
+    @Query("select it.ownerId from Item as it where it.id = ?1")
+    Optional<Long> findOwnerIdById(Long id);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select it from Item as it where it.ownerId = ?1 order by it.id")
+    Stream<Item> streamByOwnerId(Long ownerId);
+
+    List<Item> findByRequestIdInOrderById(Collection<Long> ids);
+
+    @Query("select it.id from Item as it where it.id in ?1 and it.available = true")
+    List<Long> findAvailableIds(Collection<Long> ids);
+
     @Query("select it " +
             "from Item as it " +
-            "where it.name ilike %?1% " +
-            "or it.description ilike %?1%" +
-            "and it.available = true")
-    List<Item> getItemBySearch(String search);
-}
\ No newline at end of file
+            "where it.available = true " +
+            "and (it.name ilike %?1% or it.description ilike %?1%) " +
+            "order by case when it.name ilike %?1% then 0 else 1 end, it.id " +
+            "limit ?2 offset ?3")
+    List<Item> getItemBySearch(String search, int size, int from);
+
+    @Query("select min(it.name) " +
+            "from Item as it " +
+            "where it.available = true " +
+            "and it.name ilike ?1% " +
+            "group by lower(it.name) " +
+            "order by count(it) desc, lower(it.name) " +
+            "limit ?2")
+    List<String> getItemNamesByPrefix(String prefix, int size);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new ru.practicum.shareit.item.search.ItemDocument(it.id, it.name, it.description, it.available) " +
+            "from Item as it")
+    Stream<ItemDocument> streamSearchDocuments();
+
+    @Modifying
+    @Query(value = "update items as it set " +
+            "last_booking_id = (select b.id from bookings as b " +
+            "where b.item_id = it.id and b.status in (0, 1) and b.start_time < ?2 " +
+            "order by b.start_time desc, b.id desc limit 1), " +
+            "next_booking_id = (select b.id from bookings as b " +
+            "where b.item_id = it.id and b.status in (0, 1) and b.start_time > ?2 " +
+            "order by b.start_time, b.id limit 1), " +
+            "next_booking_start = (select min(b.start_time) from bookings as b " +
+            "where b.item_id = it.id and b.status in (0, 1) and b.start_time > ?2) " +
+            "where it.id in (?1)", nativeQuery = true)
+    int updateBookingPointers(Collection<Long> itemIds, LocalDateTime currentDateTime);
+
+    @Query(value = "select it.id from items as it " +
+            "where it.next_booking_start <= ?1 " +
+            "order by it.next_booking_start " +
+            "limit ?2", nativeQuery = true)
+    List<Long> findItemIdsWithStartedNextBooking(LocalDateTime currentDateTime, int size);
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
@@ -24,4 +25,6 @@ public class ItemDto {
     private Booking lastBooking;
     private Booking nextBooking;
     private List<CommentDto> comments;
+    @JsonIgnore
+    private Long version;
 }
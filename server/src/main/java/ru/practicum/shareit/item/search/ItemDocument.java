@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+public record ItemDocument(Long id, String name, String description, Boolean available) {
+
+    public static ItemDocument of(Item item) {
+        return new ItemDocument(item.getId(), item.getName(), item.getDescription(), item.getAvailable());
+    }
+}
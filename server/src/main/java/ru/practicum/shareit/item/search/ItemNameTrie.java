@@ -0,0 +1,161 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+
+class ItemNameTrie {
+
+    static final int TOP_SIZE = 10;
+
+    private static final Node[] NO_NODES = new Node[0];
+    private static final Comparator<Node> BY_RANK = Comparator.<Node>comparingInt(node -> node.terminals)
+            .reversed()
+            .thenComparing(node -> node.key);
+
+    private final Node root = new Node();
+
+    void add(String key, String name) {
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        root.weight++;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].childOrCreate(key.charAt(i));
+            path[i + 1].weight++;
+        }
+        Node last = path[key.length()];
+        last.terminals++;
+        last.key = key;
+        last.names.merge(name, 1, Integer::sum);
+        updateTop(path, key.length());
+    }
+
+    void remove(String key, String name) {
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].child(key.charAt(i));
+            if (path[i + 1] == null) {
+                return;
+            }
+        }
+        Node last = path[key.length()];
+        if (last.terminals == 0) {
+            return;
+        }
+        last.terminals--;
+        last.names.computeIfPresent(name, (spelling, count) -> count > 1 ? count - 1 : null);
+        if (last.terminals == 0) {
+            last.key = null;
+            last.names.clear();
+        }
+        int depth = key.length();
+        for (int i = key.length(); i >= 0; i--) {
+            path[i].weight--;
+            if (i > 0 && path[i].weight == 0) {
+                path[i - 1].removeChild(key.charAt(i - 1));
+                depth = i - 1;
+            }
+        }
+        updateTop(path, depth);
+    }
+
+    List<String> suggest(String prefix, int size) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        if (size <= TOP_SIZE) {
+            return Arrays.stream(node.top).limit(size).map(Node::name).toList();
+        }
+        List<Node> terminals = new ArrayList<>();
+        collect(node, terminals);
+        return terminals.stream().sorted(BY_RANK).limit(size).map(Node::name).toList();
+    }
+
+    private static void updateTop(Node[] path, int depth) {
+        for (int i = depth; i >= 0; i--) {
+            path[i].updateTop();
+        }
+    }
+
+    private static void collect(Node node, List<Node> terminals) {
+        if (node.terminals > 0) {
+            terminals.add(node);
+        }
+        for (Node child : node.children) {
+            collect(child, terminals);
+        }
+    }
+
+    private static class Node {
+        private char[] labels = new char[0];
+        private Node[] children = NO_NODES;
+        private Node[] top = NO_NODES;
+        private final TreeMap<String, Integer> names = new TreeMap<>();
+        private int weight;
+        private int terminals;
+        private String key;
+
+        private String name() {
+            return names.firstKey();
+        }
+
+        private void updateTop() {
+            List<Node> candidates = new ArrayList<>();
+            if (terminals > 0) {
+                candidates.add(this);
+            }
+            for (Node child : children) {
+                candidates.addAll(Arrays.asList(child.top));
+            }
+            candidates.sort(BY_RANK);
+            top = candidates.stream().limit(TOP_SIZE).toArray(Node[]::new);
+        }
+
+        private Node child(char label) {
+            int position = Arrays.binarySearch(labels, label);
+            return position >= 0 ? children[position] : null;
+        }
+
+        private Node childOrCreate(char label) {
+            int position = Arrays.binarySearch(labels, label);
+            if (position >= 0) {
+                return children[position];
+            }
+            position = -position - 1;
+            Node child = new Node();
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, position);
+            System.arraycopy(children, 0, newChildren, 0, position);
+            newLabels[position] = label;
+            newChildren[position] = child;
+            System.arraycopy(labels, position, newLabels, position + 1, labels.length - position);
+            System.arraycopy(children, position, newChildren, position + 1, children.length - position);
+            labels = newLabels;
+            children = newChildren;
+            return child;
+        }
+
+        private void removeChild(char label) {
+            int position = Arrays.binarySearch(labels, label);
+            if (position < 0) {
+                return;
+            }
+            char[] newLabels = new char[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, position);
+            System.arraycopy(children, 0, newChildren, 0, position);
+            System.arraycopy(labels, position + 1, newLabels, position, labels.length - position - 1);
+            System.arraycopy(children, position + 1, newChildren, position, children.length - position - 1);
+            labels = newLabels;
+            children = newChildren;
+        }
+    }
+}
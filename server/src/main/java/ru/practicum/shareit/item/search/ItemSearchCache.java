@@ -0,0 +1,148 @@
+package ru.practicum.shareit.item.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+@Component
+public class ItemSearchCache {
+
+    private static final int GRAM_LENGTH = 3;
+    private static final String SHORT_KEYS = "";
+
+    private final Cache<String, long[]> cache;
+    private final AtomicLong generation = new AtomicLong();
+    private final Map<Long, Set<String>> keysByItemId = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> keysByGram = new ConcurrentHashMap<>();
+
+    public ItemSearchCache(@Value("${shareit.item-search-cache.max-weight:100000}") long maxWeight,
+                           MeterRegistry meterRegistry) {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((String text, long[] ids) -> text.length() + ids.length)
+                .executor(Runnable::run)
+                .removalListener((String key, long[] ids, RemovalCause cause) -> unlink(key, ids, cause))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "itemSearch");
+    }
+
+    public Optional<long[]> get(String text, Function<String, Optional<long[]>> search) {
+        String key = text.trim().toLowerCase(Locale.ROOT);
+        long[] ids = cache.getIfPresent(key);
+        if (ids != null) {
+            return Optional.of(ids);
+        }
+        long current = generation.get();
+        Optional<long[]> result = search.apply(key);
+        result.ifPresent(found -> {
+            cache.put(key, found);
+            link(key, found);
+            if (generation.get() != current) {
+                cache.invalidate(key);
+            }
+        });
+        return result;
+    }
+
+    public void invalidate(Item item) {
+        invalidate(List.of(item));
+    }
+
+    public void invalidate(Collection<Item> items) {
+        evict(items);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(items);
+                }
+            });
+        }
+    }
+
+    private void evict(Collection<Item> items) {
+        generation.incrementAndGet();
+        Set<String> keys = new HashSet<>();
+        for (Item item : items) {
+            Set<String> matched = keysByItemId.remove(item.getId());
+            if (matched != null) {
+                keys.addAll(matched);
+            }
+            collectMatchingKeys(fold(item.getName()), keys);
+            collectMatchingKeys(fold(item.getDescription()), keys);
+        }
+        cache.invalidateAll(keys);
+    }
+
+    private void collectMatchingKeys(String text, Set<String> keys) {
+        collectMatchingKeys(text, SHORT_KEYS, keys);
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            collectMatchingKeys(text, text.substring(i, i + GRAM_LENGTH), keys);
+        }
+    }
+
+    private void collectMatchingKeys(String text, String gram, Set<String> keys) {
+        Set<String> candidates = keysByGram.get(gram);
+        if (candidates == null) {
+            return;
+        }
+        for (String key : candidates) {
+            if (text.contains(key)) {
+                keys.add(key);
+            }
+        }
+    }
+
+    private void link(String key, long[] ids) {
+        keysByGram.computeIfAbsent(gram(key), gram -> ConcurrentHashMap.newKeySet()).add(key);
+        for (long id : ids) {
+            keysByItemId.computeIfAbsent(id, itemId -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+    }
+
+    private void unlink(String key, long[] ids, RemovalCause cause) {
+        if (key == null || ids == null) {
+            return;
+        }
+        if (cause != RemovalCause.REPLACED) {
+            unlink(keysByGram, gram(key), key);
+        }
+        for (long id : ids) {
+            unlink(keysByItemId, id, key);
+        }
+    }
+
+    private static <K> void unlink(Map<K, Set<String>> index, K indexKey, String key) {
+        index.computeIfPresent(indexKey, (k, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    private static String gram(String key) {
+        return key.length() < GRAM_LENGTH ? SHORT_KEYS : key.substring(0, GRAM_LENGTH);
+    }
+
+    private static String fold(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ItemSearchEngine {
+
+    /**
+     * Возвращает ID доступных вещей, в названии или описании которых встречается текст.
+     * Совпадения по названию идут первыми. Пустой Optional означает, что запрос нужно выполнить в БД.
+     */
+    Optional<long[]> search(String text);
+
+    Optional<List<String>> suggest(String prefix, int size);
+
+    void index(Item item);
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+
+class LongPostings {
+
+    private long[] ids = new long[4];
+    private int size;
+
+    void add(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0) {
+            return;
+        }
+        position = -position - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        ids[position] = id;
+        size++;
+    }
+
+    void remove(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    int retainAll(long[] candidates, int count) {
+        int retained = 0;
+        for (int i = 0; i < count; i++) {
+            if (Arrays.binarySearch(ids, 0, size, candidates[i]) >= 0) {
+                candidates[retained++] = candidates[i];
+            }
+        }
+        return retained;
+    }
+}
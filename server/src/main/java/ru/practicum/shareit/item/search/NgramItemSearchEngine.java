@@ -0,0 +1,271 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.data.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NgramItemSearchEngine implements ItemSearchEngine {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final ItemRepository itemRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Index index = new Index();
+    private List<Consumer<Index>> pendingWrites;
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingWrites = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Index rebuilt = null;
+        try {
+            rebuilt = load();
+        } finally {
+            swap(rebuilt);
+        }
+    }
+
+    private Index load() {
+        Index rebuilt = new Index();
+        try (Stream<ItemDocument> items = itemRepository.streamSearchDocuments()) {
+            items.forEach(rebuilt::put);
+        }
+        return rebuilt;
+    }
+
+    private void swap(Index rebuilt) {
+        lock.writeLock().lock();
+        try {
+            if (rebuilt != null) {
+                pendingWrites.forEach(write -> write.accept(rebuilt));
+                index = rebuilt;
+                ready = true;
+                log.info("Поисковый индекс вещей построен, проиндексировано {}", rebuilt.size());
+            }
+        } finally {
+            pendingWrites = null;
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<long[]> search(String text) {
+        String query = fold(text).trim();
+        if (!ready || query.length() < GRAM_LENGTH) {
+            return Optional.empty();
+        }
+        long[] grams = grams(query);
+        lock.readLock().lock();
+        try {
+            long[] byName = index.match(index.namePostings, grams, query, Entry::name);
+            long[] byDescription = index.match(index.descriptionPostings, grams, query, Entry::description);
+            return Optional.of(rank(byName, byDescription));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<List<String>> suggest(String prefix, int size) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            return Optional.of(index.names.suggest(fold(prefix).trim(), size));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Item item) {
+        ItemDocument document = ItemDocument.of(item);
+        ItemDocument previous;
+        lock.writeLock().lock();
+        try {
+            previous = index.put(document);
+            if (pendingWrites != null) {
+                pendingWrites.add(current -> current.put(document));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        restore(document.id(), previous);
+                    }
+                }
+            });
+        }
+    }
+
+    private void restore(Long id, ItemDocument previous) {
+        Consumer<Index> write = current -> current.restore(id, previous);
+        lock.writeLock().lock();
+        try {
+            write.accept(index);
+            if (pendingWrites != null) {
+                pendingWrites.add(write);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static long[] rank(long[] byName, long[] byDescription) {
+        long[] result = new long[byName.length + byDescription.length];
+        int size = 0;
+        for (long id : byName) {
+            result[size++] = id;
+        }
+        for (long id : byDescription) {
+            if (Arrays.binarySearch(byName, id) < 0) {
+                result[size++] = id;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static long[] grams(String text) {
+        if (text.length() < GRAM_LENGTH) {
+            return new long[0];
+        }
+        long[] grams = new long[text.length() - GRAM_LENGTH + 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        return Arrays.stream(grams).sorted().distinct().toArray();
+    }
+
+    private static String fold(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Index {
+        private final Map<Long, Entry> documents = new HashMap<>();
+        private final Map<Long, LongPostings> namePostings = new HashMap<>();
+        private final Map<Long, LongPostings> descriptionPostings = new HashMap<>();
+        private final ItemNameTrie names = new ItemNameTrie();
+
+        private int size() {
+            return documents.size();
+        }
+
+        private ItemDocument put(ItemDocument document) {
+            long id = document.id();
+            Entry entry = new Entry(document, fold(document.name()), fold(document.description()));
+            Entry previous = documents.put(id, entry);
+            if (previous != null) {
+                unlink(id, previous);
+            }
+            link(namePostings, grams(entry.name()), id);
+            link(descriptionPostings, grams(entry.description()), id);
+            if (entry.available()) {
+                names.add(entry.name(), document.name());
+            }
+            return previous != null ? previous.source() : null;
+        }
+
+        private void restore(Long id, ItemDocument previous) {
+            if (previous != null) {
+                put(previous);
+                return;
+            }
+            Entry current = documents.remove(id);
+            if (current != null) {
+                unlink(id, current);
+            }
+        }
+
+        private void unlink(long id, Entry entry) {
+            unlink(namePostings, grams(entry.name()), id);
+            unlink(descriptionPostings, grams(entry.description()), id);
+            if (entry.available()) {
+                names.remove(entry.name(), entry.source().name());
+            }
+        }
+
+        private static void link(Map<Long, LongPostings> postings, long[] grams, long id) {
+            for (long gram : grams) {
+                postings.computeIfAbsent(gram, key -> new LongPostings()).add(id);
+            }
+        }
+
+        private static void unlink(Map<Long, LongPostings> postings, long[] grams, long id) {
+            for (long gram : grams) {
+                LongPostings list = postings.get(gram);
+                if (list != null) {
+                    list.remove(id);
+                    if (list.isEmpty()) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+        }
+
+        private long[] match(Map<Long, LongPostings> postings, long[] grams, String query,
+                             Function<Entry, String> field) {
+            LongPostings[] lists = new LongPostings[grams.length];
+            for (int i = 0; i < grams.length; i++) {
+                lists[i] = postings.get(grams[i]);
+                if (lists[i] == null) {
+                    return new long[0];
+                }
+            }
+            Arrays.sort(lists, (first, second) -> Integer.compare(first.size(), second.size()));
+            long[] candidates = lists[0].toArray();
+            int count = candidates.length;
+            for (int i = 1; i < lists.length && count > 0; i++) {
+                count = lists[i].retainAll(candidates, count);
+            }
+            int matched = 0;
+            for (int i = 0; i < count; i++) {
+                Entry entry = documents.get(candidates[i]);
+                if (entry.available() && field.apply(entry).contains(query)) {
+                    candidates[matched++] = candidates[i];
+                }
+            }
+            return Arrays.copyOf(candidates, matched);
+        }
+    }
+
+    private record Entry(ItemDocument source, String name, String description) {
+
+        private boolean available() {
+            return Boolean.TRUE.equals(source.available());
+        }
+    }
+}
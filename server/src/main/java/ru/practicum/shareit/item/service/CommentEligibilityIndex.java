@@ -0,0 +1,110 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.data.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class CommentEligibilityIndex {
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, long[]> bookers;
+    private final AtomicLong generation = new AtomicLong();
+
+    public CommentEligibilityIndex(BookingRepository bookingRepository,
+                                   @Value("${shareit.comment-eligibility.max-items:10000}") long maxItems,
+                                   MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        bookers = Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, bookers, "commentEligibility");
+    }
+
+    public boolean canComment(Long itemId, Long bookerId) {
+        long[] known = bookers.getIfPresent(itemId);
+        if (known != null && Arrays.binarySearch(known, bookerId) >= 0) {
+            return true;
+        }
+        long current = generation.get();
+        boolean eligible = bookingRepository.existsCommentableBooking(bookerId, itemId, LocalDateTime.now());
+        if (eligible) {
+            put(itemId, bookerId);
+            if (generation.get() != current) {
+                bookers.invalidate(itemId);
+            }
+        }
+        return eligible;
+    }
+
+    public void add(Booking booking) {
+        if (booking.getStartTime().isAfter(LocalDateTime.now())) {
+            return;
+        }
+        Long itemId = booking.getItem().getId();
+        Long bookerId = booking.getBookerId();
+        long current = generation.get();
+        afterCommit(() -> {
+            if (generation.get() == current) {
+                put(itemId, bookerId);
+            }
+        });
+    }
+
+    public void invalidate(Long itemId) {
+        evict(itemId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(itemId);
+                }
+            });
+        }
+    }
+
+    private void put(Long itemId, long bookerId) {
+        bookers.asMap().merge(itemId, new long[]{bookerId}, (known, added) -> {
+            int position = Arrays.binarySearch(known, bookerId);
+            if (position >= 0) {
+                return known;
+            }
+            position = -position - 1;
+            long[] result = new long[known.length + 1];
+            System.arraycopy(known, 0, result, 0, position);
+            result[position] = bookerId;
+            System.arraycopy(known, position, result, position + 1, known.length - position);
+            return result;
+        });
+    }
+
+    private void evict(Long itemId) {
+        generation.incrementAndGet();
+        bookers.invalidate(itemId);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.data.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.util.LongLongHashMap;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ItemOwnerIndex {
+
+    public static final long NO_OWNER = -1L;
+
+    private final ItemRepository itemRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final LongLongHashMap owners = new LongLongHashMap(1024);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        jdbcTemplate.query("select id, owner_id from items",
+                (RowCallbackHandler) rs -> put(rs.getLong(1), rs.getLong(2)));
+        log.info("Индекс владельцев вещей построен, загружено {}", size());
+    }
+
+    public long getOwnerId(long itemId) {
+        lock.readLock().lock();
+        try {
+            long ownerId = owners.get(itemId, NO_OWNER);
+            if (ownerId != NO_OWNER) {
+                return ownerId;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return itemRepository.findOwnerIdById(itemId)
+                .map(ownerId -> {
+                    put(itemId, ownerId);
+                    return ownerId;
+                })
+                .orElse(NO_OWNER);
+    }
+
+    public void add(Collection<Item> items) {
+        long[] itemIds = items.stream().mapToLong(Item::getId).toArray();
+        long[] ownerIds = items.stream().mapToLong(Item::getOwnerId).toArray();
+        afterCommit(() -> {
+            for (int i = 0; i < itemIds.length; i++) {
+                put(itemIds[i], ownerIds[i]);
+            }
+        });
+    }
+
+    private int size() {
+        lock.readLock().lock();
+        try {
+            return owners.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(long itemId, long ownerId) {
+        lock.writeLock().lock();
+        try {
+            owners.put(itemId, ownerId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -1,21 +1,34 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.function.Consumer;
 
 public interface ItemService {
 
     ItemDto addItem(Long userId, ItemDto itemDto);
 
-    ItemDto updateItemDto(Long userId, Long itemId, ItemDto itemDto);
+    Collection<ItemBatchResultDto> addItems(Long userId, Iterator<ItemDto> itemsDto);
+
+    ItemDto updateItemDto(Long userId, Long itemId, ItemDto itemDto, Long version);
 
     ItemDto getItemDtoById(Long userId, Long itemId);
 
+    Collection<ItemAvailabilityDto> getItemAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to);
+
     Collection<ItemDto> getItemsDtoByUserId(Long userId);
 
-    Collection<ItemDto> getItemsDtoBySearch(Long userId, String search);
+    Consumer<Consumer<ItemDto>> exportItemsDtoByUserId(Long userId);
+
+    Collection<ItemDto> getItemsDtoBySearch(Long userId, String search, int from, Integer size);
+
+    Collection<String> getItemNamesByPrefix(Long userId, String prefix, int size);
 
     CommentDto setCommentInItem(Long userId, Long itemId, CommentDto commentDto);
 }
@@ -1,25 +1,48 @@
 package ru.practicum.shareit.item.service;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.data.BookingRepository;
 import ru.practicum.shareit.booking.data.CommentRepository;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.MappingItem;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.data.ItemBatchRepository;
 import ru.practicum.shareit.item.data.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.validation.exeption.BadRequestException;
+import ru.practicum.shareit.validation.exeption.PreconditionFailedException;
 import ru.practicum.shareit.validation.item.ValidationItem;
 import ru.practicum.shareit.validation.user.ValidationUser;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -29,34 +52,80 @@ import java.util.stream.Stream;
 @Transactional
 public class ItemServiceImpl implements ItemService {
 
+    private static final int BATCH_SIZE = 500;
+    private static final int NAME_MAX_LENGTH = 100;
+    private static final int DESCRIPTION_MAX_LENGTH = 100;
+
     private final ValidationUser validationUser;
     private final ValidationItem validationItem;
     private final ItemRepository itemRepository;
+    private final ItemBatchRepository itemBatchRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemViewCache itemViewCache;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final ItemOwnerIndex itemOwnerIndex;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     public ItemDto addItem(Long userId, ItemDto itemDto) {
         validationUser.validationUserById(userId);
         Item item = itemRepository.save(MappingItem.mapToItem(itemDto, userId));
+        itemOwnerIndex.add(List.of(item));
+        itemSearchEngine.index(item);
+        itemSearchCache.invalidate(item);
         log.info("{} добавлен(а)", item.getName());
         return MappingItem.mapToItemDto(item);
     }
 
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Collection<ItemBatchResultDto> addItems(Long userId, Iterator<ItemDto> itemsDto) {
+        validationUser.validationUserById(userId);
+        List<ItemBatchResultDto> results = new ArrayList<>();
+        List<Item> batch = new ArrayList<>(BATCH_SIZE);
+        List<ItemBatchResultDto> batchResults = new ArrayList<>(BATCH_SIZE);
+        int row = 0;
+        while (itemsDto.hasNext()) {
+            ItemDto itemDto = itemsDto.next();
+            ItemBatchResultDto result = ItemBatchResultDto.builder().row(row++).build();
+            results.add(result);
+            if (!isValidItemDto(itemDto)) {
+                result.setError("Некорректные данные вещи");
+                continue;
+            }
+            batch.add(MappingItem.mapToItem(itemDto, userId));
+            batchResults.add(result);
+            if (batch.size() == BATCH_SIZE) {
+                saveBatch(batch, batchResults);
+            }
+        }
+        saveBatch(batch, batchResults);
+        log.info("Пакетно добавлено вещей: {} из {}", results.stream().filter(it -> it.getId() != null).count(), row);
+        return results;
+    }
+
     @Override
     public CommentDto setCommentInItem(Long bookerId, Long itemId, CommentDto commentDto) {
         User user = validationUser.validationUserById(bookerId);
         Item item = validationItem.validationItemById(itemId);
-        List<Booking> bookings = bookingRepository.findAllBookingByBookerIdAndItemOrderByStartTimeDesc(bookerId, item);
-        Booking booking = validationItem.validationCommentByBookerId(bookings);
-        Comment comment = commentRepository.save(MappingItem.mapToComment(commentDto, user, booking.getItem()));
+        validationItem.validationCommentByBookerId(bookerId, itemId);
+        Comment comment = commentRepository.save(MappingItem.mapToComment(commentDto, user, item));
+        itemViewCache.invalidate(itemId);
         return MappingItem.mapToCommentDto(comment);
     }
 
     @Override
-    public ItemDto updateItemDto(Long userId, Long itemId, ItemDto itemDto) {
+    public ItemDto updateItemDto(Long userId, Long itemId, ItemDto itemDto, Long version) {
         validationUser.validationUserById(userId);
         Item item = validationItem.validationItemByUser(itemId, userId);
+        if (version != null && !version.equals(item.getVersion())) {
+            log.info("Версия вещи с ID {} изменилась: ожидалась {}, текущая {}", itemId, version, item.getVersion());
+            throw new PreconditionFailedException("Вещь с ID " + itemId + " была изменена другим запросом");
+        }
         if (itemDto.getName() != null) {
             item.setName(itemDto.getName());
         }
@@ -66,16 +135,32 @@ public class ItemServiceImpl implements ItemService {
         if (itemDto.getAvailable() != null) {
             item.setAvailable(itemDto.getAvailable());
         }
+        Item itemResult = itemRepository.saveAndFlush(item);
+        itemSearchEngine.index(itemResult);
+        itemSearchCache.invalidate(itemResult);
+        itemViewCache.invalidate(itemId);
         log.info("Данные {} обновлены", item.getName());
-        return MappingItem.mapToItemDto(itemRepository.save(item));
+        return MappingItem.mapToItemDto(itemResult);
     }
 
     @Override
     @Transactional(readOnly = true)
     public ItemDto getItemDtoById(Long userId, Long itemId) {
         validationUser.validationUserById(userId);
-        Item item = validationItem.validationItemById(itemId);
-        return mappingItemToItemDto(item, userId);
+        return itemViewCache.get(itemId, userId, this::getItemView);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Collection<ItemAvailabilityDto> getItemAvailability(Long userId, Long itemId,
+                                                               LocalDateTime from, LocalDateTime to) {
+        validationUser.validationUserById(userId);
+        validationItem.validationItemById(itemId);
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("Начало периода должно быть раньше его окончания");
+        }
+        log.info("Свободные окна вещи с ID {} получены", itemId);
+        return itemAvailabilityIndex.getFreeWindows(itemId, from, to);
     }
 
     @Override
@@ -83,26 +168,152 @@ public class ItemServiceImpl implements ItemService {
     public Collection<ItemDto> getItemsDtoByUserId(Long userId) {
         validationUser.validationUserById(userId);
         Collection<Item> items = itemRepository.findByOwnerId(userId);
+        Map<Long, List<Booking>> bookings = bookingRepository
+                .findLastAndNextBookingsByOwnerId(userId).stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        Map<Long, List<Comment>> comments = commentRepository.getCommentsByItemIds(
+                items.stream().map(Item::getId).toList());
         log.info("Список всех вещей пользователя получен и отправлен");
-        return items.stream().map(item -> mappingItemToItemDto(item, userId)).collect(Collectors.toList());
+        return MappingItem.mapToItemDto(items, bookings, comments);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Consumer<Consumer<ItemDto>> exportItemsDtoByUserId(Long userId) {
+        validationUser.validationUserById(userId);
+        return consumer -> transactionTemplate.executeWithoutResult(status -> exportItems(userId, consumer));
+    }
+
+    private void exportItems(Long userId, Consumer<ItemDto> consumer) {
+        List<Item> chunk = new ArrayList<>(BATCH_SIZE);
+        try (Stream<Item> items = itemRepository.streamByOwnerId(userId)) {
+            items.forEach(item -> {
+                chunk.add(item);
+                if (chunk.size() == BATCH_SIZE) {
+                    exportChunk(chunk, consumer);
+                }
+            });
+        }
+        exportChunk(chunk, consumer);
+        log.info("Выгрузка вещей пользователя с ID {} завершена", userId);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Collection<ItemDto> getItemsDtoBySearch(Long userId, String search) {
+    public Collection<ItemDto> getItemsDtoBySearch(Long userId, String search, int from, Integer size) {
         validationUser.validationUserById(userId);
-        Collection<Item> items = itemRepository.getItemBySearch(search);
+        if (search.trim().isEmpty()) {
+            return List.of();
+        }
+        String text = search.trim();
+        int limit = size == null ? Integer.MAX_VALUE : size;
+        Collection<Item> items = itemSearchCache.get(text, itemSearchEngine::search)
+                .map(ids -> getItemsPage(ids, from, limit))
+                .orElseGet(() -> itemRepository.getItemBySearch(text, limit, from));
+        Map<Long, List<Comment>> comments = commentRepository.getCommentsByItemIds(
+                items.stream().map(Item::getId).toList());
         log.info("Список для поиска получен");
-        if (!search.trim().isEmpty()) {
-            return items.stream()
-                    .map(MappingItem::mapToItemDto)
-                    .collect(Collectors.toList());
+        return MappingItem.mapToItemDto(items, comments);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Collection<String> getItemNamesByPrefix(Long userId, String prefix, int size) {
+        validationUser.validationUserById(userId);
+        if (prefix.trim().isEmpty()) {
+            return List.of();
+        }
+        String text = prefix.trim();
+        return itemSearchEngine.suggest(text, size)
+                .orElseGet(() -> itemRepository.getItemNamesByPrefix(text, size));
+    }
+
+    private void saveBatch(List<Item> batch, List<ItemBatchResultDto> batchResults) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                itemBatchRepository.saveAll(batch);
+                itemOwnerIndex.add(batch);
+                List<Item> saved = List.copyOf(batch);
+                afterCommit(() -> {
+                    saved.forEach(itemSearchEngine::index);
+                    itemSearchCache.invalidate(saved);
+                });
+            });
+            for (int i = 0; i < batch.size(); i++) {
+                batchResults.get(i).setId(batch.get(i).getId());
+            }
+        } catch (DataAccessException e) {
+            log.warn("Не удалось сохранить пакет из {} вещей", batch.size(), e);
+            batchResults.forEach(result -> result.setError("Не удалось сохранить вещь"));
+        }
+        batch.clear();
+        batchResults.clear();
+    }
+
+    private void exportChunk(List<Item> chunk, Consumer<ItemDto> consumer) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<Long> itemIds = chunk.stream().map(Item::getId).toList();
+        Map<Long, List<Booking>> bookings = bookingRepository.findLastAndNextBookingsByItemIds(itemIds).stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        Map<Long, List<Comment>> comments = commentRepository.getCommentsByItemIds(itemIds);
+        MappingItem.mapToItemDto(chunk, bookings, comments).forEach(consumer);
+        chunk.clear();
+        entityManager.clear();
+    }
+
+    private static boolean isValidItemDto(ItemDto itemDto) {
+        return itemDto != null
+                && itemDto.getName() != null && !itemDto.getName().isBlank()
+                && itemDto.getName().length() <= NAME_MAX_LENGTH
+                && itemDto.getDescription() != null && !itemDto.getDescription().isBlank()
+                && itemDto.getDescription().length() <= DESCRIPTION_MAX_LENGTH
+                && itemDto.getAvailable() != null;
+    }
+
+    private List<Item> getItemsPage(long[] ids, int from, int size) {
+        List<Long> pageIds = new ArrayList<>();
+        int skipped = 0;
+        int position = 0;
+        while (position < ids.length && pageIds.size() < size) {
+            int needed = (int) Math.min(BATCH_SIZE, (long) from - skipped + size - pageIds.size());
+            int end = Math.min(ids.length, position + needed);
+            List<Long> chunk = Arrays.stream(ids, position, end).boxed().toList();
+            Set<Long> available = new HashSet<>(itemRepository.findAvailableIds(chunk));
+            for (Long id : chunk) {
+                if (!available.contains(id)) {
+                    continue;
+                }
+                if (skipped < from) {
+                    skipped++;
+                } else if (pageIds.size() < size) {
+                    pageIds.add(id);
+                }
+            }
+            position = end;
+        }
+        if (pageIds.isEmpty()) {
+            return List.of();
         }
-        return List.of();
+        Map<Long, Item> items = itemRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return pageIds.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private ItemViewCache.View getItemView(Long itemId) {
+        Item item = validationItem.validationItemById(itemId);
+        return new ItemViewCache.View(item.getOwnerId(), mappingItemToItemDto(item, item.getOwnerId()));
     }
 
     private ItemDto mappingItemToItemDto(Item item, long userId) {
-        List<Booking> bookings = getLastAndNextBookings(userId, item.getId());
+        List<Booking> bookings = getLastAndNextBookings(userId, item);
         log.info("По ID {} найден(а) {}", item.getId(), item.getName());
         if (bookings.isEmpty()) {
             return MappingItem.mapToItemDto(item);
@@ -110,24 +321,23 @@ public class ItemServiceImpl implements ItemService {
         return MappingItem.mapToItemDto(item, bookings);
     }
 
-    private List<Booking> getLastAndNextBookings(Long userId, Long itemId) {
-        LocalDateTime currentDateTime = LocalDateTime.now();
-        List<Booking> bookings = bookingRepository.findAllBookingByItemIdOrderByStartTimeAsc(itemId);
-        if (!bookings.isEmpty()) {
-            List<Booking> lastBooking = bookings.stream()
-                    .filter(booking -> booking.getItem().getOwnerId().equals(userId))
-                    .filter(booking -> booking.getStartTime().isBefore(currentDateTime))
-                    .filter(booking -> !booking.getStatus().equals(2))
-                    .reduce((first, second) -> second)
-                    .stream().toList();
-            List<Booking> nextBookings = bookings.stream()
-                    .filter(booking -> booking.getItem().getOwnerId().equals(userId))
-                    .filter(booking -> booking.getStartTime().isAfter(currentDateTime))
-                    .filter(booking -> !booking.getStatus().equals(2))
-                    .findFirst()
-                    .stream().toList();
-            return Stream.concat(lastBooking.stream(), nextBookings.stream()).collect(Collectors.toList());
-        }
-        return bookings;
+    private List<Booking> getLastAndNextBookings(Long userId, Item item) {
+        if (!item.getOwnerId().equals(userId)) {
+            return List.of();
+        }
+        return bookingRepository.findLastAndNextBookingsByItemId(item.getId(), LocalDateTime.now());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
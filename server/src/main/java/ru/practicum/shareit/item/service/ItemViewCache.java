@@ -0,0 +1,107 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@Component
+public class ItemViewCache {
+
+    private final Cache<Long, View> cache;
+    private final Duration maxTtl;
+    private final AtomicLong generation = new AtomicLong();
+
+    public ItemViewCache(@Value("${shareit.item-view-cache.max-size:10000}") long maxSize,
+                         @Value("${shareit.item-view-cache.max-ttl-seconds:300}") long maxTtlSeconds,
+                         MeterRegistry meterRegistry) {
+        this.maxTtl = Duration.ofSeconds(maxTtlSeconds);
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<Long, View>() {
+                    @Override
+                    public long expireAfterCreate(Long itemId, View view, long currentTime) {
+                        return timeToLive(view).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long itemId, View view, long currentTime, long currentDuration) {
+                        return timeToLive(view).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long itemId, View view, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "itemView");
+    }
+
+    public ItemDto get(Long itemId, Long userId, Function<Long, View> loader) {
+        View view = cache.getIfPresent(itemId);
+        if (view == null) {
+            long current = generation.get();
+            view = loader.apply(itemId);
+            cache.put(itemId, view);
+            if (generation.get() != current) {
+                cache.invalidate(itemId);
+            }
+        }
+        if (view.ownerId().equals(userId)) {
+            return view.item();
+        }
+        return view.item().toBuilder()
+                .lastBooking(null)
+                .nextBooking(null)
+                .build();
+    }
+
+    public void invalidate(Long itemId) {
+        evict(itemId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(itemId);
+                }
+            });
+        }
+    }
+
+    private void evict(Long itemId) {
+        generation.incrementAndGet();
+        cache.invalidate(itemId);
+    }
+
+    private Duration timeToLive(View view) {
+        LocalDateTime now = LocalDateTime.now();
+        return Stream.of(view.item().getLastBooking(), view.item().getNextBooking())
+                .filter(Objects::nonNull)
+                .map(Booking::getStartTime)
+                .filter(start -> start.isAfter(now))
+                .map(start -> Duration.between(now, start))
+                .filter(untilStart -> untilStart.compareTo(maxTtl) < 0)
+                .min(Comparator.naturalOrder())
+                .orElse(maxTtl);
+    }
+
+    public record View(Long ownerId, ItemDto item) {
+    }
+}
@@ -2,12 +2,14 @@ package ru.practicum.shareit.request;
 
 import ru.practicum.shareit.item.MappingItem;
 import ru.practicum.shareit.item.dto.ItemForRequestDto;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.ReqRequestDto;
 import ru.practicum.shareit.request.dto.ReqResponseDto;
 import ru.practicum.shareit.request.model.Request;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 public class MappingRequest {
 
@@ -20,8 +22,19 @@ public class MappingRequest {
                 .build();
     }
 
-    public static List<ReqResponseDto> mapToReqResponseDto(List<Request> request) {
-        return request.stream().map(MappingRequest::mapToReqResponseDto).toList();
+    public static ReqResponseDto mapToReqResponseDto(Request request, List<Item> items) {
+        return ReqResponseDto.builder()
+                .id(request.getId())
+                .description(request.getDescription())
+                .created(request.getCreated())
+                .items(items.stream().map(MappingItem::mapToItemForRequestDto).toList())
+                .build();
+    }
+
+    public static List<ReqResponseDto> mapToReqResponseDto(List<Request> request, Map<Long, List<Item>> items) {
+        return request.stream()
+                .map(it -> mapToReqResponseDto(it, items.getOrDefault(it.getId(), List.of())))
+                .toList();
     }
 
     public static Request mapToRequest(long userId, ReqRequestDto reqRequestDto) {
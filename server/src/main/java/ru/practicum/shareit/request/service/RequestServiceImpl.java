@@ -5,6 +5,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.data.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.MappingRequest;
 import ru.practicum.shareit.request.data.RequestRepository;
 import ru.practicum.shareit.request.dto.GetAllRequestDto;
@@ -15,6 +17,8 @@ import ru.practicum.shareit.validation.exeption.NotFoundException;
 import ru.practicum.shareit.validation.user.ValidationUser;
 
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -24,6 +28,7 @@ public class RequestServiceImpl implements RequestService {
 
     private final RequestRepository requestRepository;
     private final ValidationUser validationUser;
+    private final ItemRepository itemRepository;
 
     @Override
     @Transactional
@@ -52,7 +57,7 @@ public class RequestServiceImpl implements RequestService {
         validationUser.validationUserById(userId);
         List<Request> responseDtoList = requestRepository.findAllByUserIdOrderByCreatedDesc(userId);
         log.info("Отправлен список всех запросов пользователя с ID {}", userId);
-        return MappingRequest.mapToReqResponseDto(responseDtoList);
+        return MappingRequest.mapToReqResponseDto(responseDtoList, getItemsByRequests(responseDtoList));
     }
 
     @Override
@@ -63,6 +68,14 @@ public class RequestServiceImpl implements RequestService {
                 requestDto.getSize(),
                 requestDto.getFrom());
         log.info("Для пользователя с ID {} отправлен список запросов других пользователей", userId);
-        return MappingRequest.mapToReqResponseDto(responseDtoList);
+        return MappingRequest.mapToReqResponseDto(responseDtoList, getItemsByRequests(responseDtoList));
+    }
+
+    private Map<Long, List<Item>> getItemsByRequests(List<Request> requests) {
+        if (requests.isEmpty()) {
+            return Map.of();
+        }
+        return itemRepository.findByRequestIdInOrderById(requests.stream().map(Request::getId).toList()).stream()
+                .collect(Collectors.groupingBy(Item::getRequestId));
     }
 }
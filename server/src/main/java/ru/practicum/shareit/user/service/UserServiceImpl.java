@@ -19,6 +19,7 @@ public class UserServiceImpl implements UserService {
 
     private final ValidationUser validationUser;
     private final UserRepository userRepository;
+    private final UserCache userCache;
 
     @Override
     public User addUser(User user) {
@@ -44,6 +45,7 @@ public class UserServiceImpl implements UserService {
             user1.setName(user.getName());
         }
         userRepository.save(user1);
+        userCache.invalidate(userId);
         log.info("Данные пользователя {} обновлены", user1.getEmail());
         return user1;
     }
@@ -52,6 +54,7 @@ public class UserServiceImpl implements UserService {
     public User removeUser(Long id) {
         User user = validationUser.validationUserById(id);
         userRepository.delete(user);
+        userCache.invalidate(id);
         log.info("Пользователь {} удален", user.getEmail());
         return user;
     }
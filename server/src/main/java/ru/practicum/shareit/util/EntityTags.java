@@ -0,0 +1,35 @@
+package ru.practicum.shareit.util;
+
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.validation.exeption.BadRequestException;
+
+public final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    public static Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() > 1 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Некорректный заголовок If-Match: " + ifMatch);
+        }
+    }
+
+    public static <T> ResponseEntity<T> ok(T body, Long version) {
+        if (version == null) {
+            return ResponseEntity.ok(body);
+        }
+        return ResponseEntity.ok().eTag("\"" + version + "\"").body(body);
+    }
+}
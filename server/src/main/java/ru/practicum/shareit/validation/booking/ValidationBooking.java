@@ -3,6 +3,8 @@ package ru.practicum.shareit.validation.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.MappingBooking;
+import ru.practicum.shareit.booking.data.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.data.BookingRepository;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.model.Booking;
@@ -18,6 +20,7 @@ import ru.practicum.shareit.validation.item.ValidationItem;
 public class ValidationBooking {
 
     private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
     private final ValidationItem validationItem;
 
     public Booking validationBookingById(Long id) {
@@ -25,6 +28,12 @@ public class ValidationBooking {
                 .orElseThrow(() -> new NotFoundException("Бронирование с ID " + id + " не найдено"));
     }
 
+    public Booking validationBookingWithArchiveById(Long id) {
+        return bookingRepository.findById(id)
+                .or(() -> archivedBookingRepository.findById(id).map(MappingBooking::mapToBooking))
+                .orElseThrow(() -> new NotFoundException("Бронирование с ID " + id + " не найдено"));
+    }
+
     public Item validationBookingDto(BookingRequestDto bookingRequestDto, Long userId) {
         Item item = validationItem.validationItemById(bookingRequestDto.getItemId());
         if (item.getOwnerId().equals(userId)) {
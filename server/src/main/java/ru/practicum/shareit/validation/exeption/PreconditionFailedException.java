@@ -0,0 +1,7 @@
+package ru.practicum.shareit.validation.exeption;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(final String message) {
+        super(message);
+    }
+}
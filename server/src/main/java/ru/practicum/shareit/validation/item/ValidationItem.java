@@ -3,21 +3,21 @@ package ru.practicum.shareit.validation.item;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
-import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.data.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.CommentEligibilityIndex;
+import ru.practicum.shareit.item.service.ItemOwnerIndex;
 import ru.practicum.shareit.validation.exeption.BadRequestException;
 import ru.practicum.shareit.validation.exeption.NotFoundException;
 
-import java.time.LocalDateTime;
-import java.util.List;
-
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class ValidationItem {
 
     private final ItemRepository itemRepository;
+    private final ItemOwnerIndex itemOwnerIndex;
+    private final CommentEligibilityIndex commentEligibilityIndex;
 
     public Item validationItemById(Long id) {
         return itemRepository.findById(id)
@@ -33,12 +33,21 @@ public class ValidationItem {
         return item;
     }
 
-    public Booking validationCommentByBookerId(List<Booking> bookings) {
-        LocalDateTime currentDateTime = LocalDateTime.now();
-        return bookings.stream()
-                .filter(booking -> !booking.getStartTime().isAfter(currentDateTime))
-                .filter(booking -> !booking.getStatus().equals(2))
-                .findFirst()
-                .orElseThrow(() -> new BadRequestException("Пользоваетель не может оставить комментарий"));
+    public void validationItemOwner(Long itemId, Long userId) {
+        long ownerId = itemOwnerIndex.getOwnerId(itemId);
+        if (ownerId == ItemOwnerIndex.NO_OWNER) {
+            throw new NotFoundException("Вещь с ID " + itemId + " не найдена");
+        }
+        if (ownerId != userId) {
+            Item item = validationItemById(itemId);
+            log.info("{} не принадлежит пользователю с ID {}", item.getName(), userId);
+            throw new NotFoundException(item.getName() + " не принадлежит пользователю с ID " + userId);
+        }
+    }
+
+    public void validationCommentByBookerId(Long bookerId, Long itemId) {
+        if (!commentEligibilityIndex.canComment(itemId, bookerId)) {
+            throw new BadRequestException("Пользоваетель не может оставить комментарий");
+        }
     }
 }
@@ -5,20 +5,28 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.user.data.UserRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserCache;
 import ru.practicum.shareit.validation.exeption.NotFoundException;
 
+import java.util.Optional;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class ValidationUser {
 
     private final UserRepository userRepository;
+    private final UserCache userCache;
 
     public User validationUserById(Long id) {
-        return userRepository.findById(id)
+        return findUserById(id)
                 .orElseThrow(() -> new NotFoundException("Пользователь с ID " + id + " не зарегистрирован"));
     }
 
+    public Optional<User> findUserById(Long id) {
+        return userCache.get(id, userRepository::findById);
+    }
+
     public User validationUserByEmailSame(String email) {
         return userRepository.findUserByEmail(email);
     }
@@ -0,0 +1,28 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX items_name_trgm ON items USING gin (name gin_trgm_ops);
+CREATE INDEX items_description_trgm ON items USING gin (description gin_trgm_ops);
+
+CREATE INDEX bookings_itemId_startTime_active ON bookings(item_id, start_time, id) WHERE status IN (0, 1);
+CREATE INDEX bookings_waiting_startTime ON bookings(start_time, id) WHERE status = 0;
+
+DROP TABLE bookings_archive;
+CREATE TABLE bookings_archive (
+                       id BIGINT NOT NULL,
+                       item_id BIGINT,
+                       booker_id BIGINT,
+                       start_time timestamp NOT NULL,
+                       end_time timestamp,
+                       status INTEGER,
+                       owner_id BIGINT,
+                       archived timestamp NOT NULL,
+                       CONSTRAINT bookings_archive_pk PRIMARY KEY (id, start_time),
+                       CONSTRAINT bookings_archive_items_fk FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE
+) PARTITION BY RANGE (start_time);
+CREATE INDEX bookings_archive_ownerId_startTime ON bookings_archive(owner_id, start_time DESC, id DESC);
+CREATE INDEX bookings_archive_bookerId_itemId ON bookings_archive(booker_id, item_id);
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE bookings ADD CONSTRAINT bookings_approved_no_overlap
+    EXCLUDE USING gist (item_id WITH =, tsrange(start_time, end_time) WITH &&) WHERE (status = 1);
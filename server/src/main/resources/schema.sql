@@ -1,4 +1,4 @@
-DROP TABLE IF EXISTS users, items, bookings, comments, requests;
+DROP TABLE IF EXISTS users, items, bookings, bookings_archive, booking_events, comments, requests;
 
 CREATE TABLE users (
                          id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -13,9 +13,16 @@ CREATE TABLE items (
                          description text,
                          owner_id BIGINT NOT NULL,
                          available boolean,
-                         request_id BIGINT
+                         request_id BIGINT,
+                         last_booking_id BIGINT,
+                         next_booking_id BIGINT,
+                         next_booking_start timestamp,
+                         version BIGINT DEFAULT 0 NOT NULL
 );
 CREATE INDEX items_ownerId ON items(owner_id);
+CREATE INDEX items_nextBookingStart ON items(next_booking_start);
+CREATE INDEX items_lastBookingId ON items(last_booking_id);
+CREATE INDEX items_nextBookingId ON items(next_booking_id);
 
 CREATE TABLE bookings (
                        id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -24,10 +31,42 @@ CREATE TABLE bookings (
                        start_time timestamp,
                        end_time timestamp,
                        status INTEGER,
+                       owner_id BIGINT,
+                       version BIGINT DEFAULT 0 NOT NULL,
                        CONSTRAINT bookings_items_fk FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE
 );
-CREATE INDEX bookings_itemId ON bookings(item_id);
-CREATE INDEX bookings_bookerId ON bookings(booker_id);
+CREATE INDEX bookings_itemId_startTime ON bookings(item_id, start_time, id);
+CREATE INDEX bookings_bookerId_startTime ON bookings(booker_id, start_time DESC, id DESC);
+CREATE INDEX bookings_ownerId_startTime ON bookings(owner_id, start_time DESC, id DESC);
+CREATE INDEX bookings_endTime ON bookings(end_time);
+
+CREATE TABLE bookings_archive (
+                       id BIGINT NOT NULL,
+                       item_id BIGINT,
+                       booker_id BIGINT,
+                       start_time timestamp NOT NULL,
+                       end_time timestamp,
+                       status INTEGER,
+                       owner_id BIGINT,
+                       archived timestamp NOT NULL,
+                       CONSTRAINT bookings_archive_pk PRIMARY KEY (id, start_time),
+                       CONSTRAINT bookings_archive_items_fk FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE
+);
+CREATE INDEX bookings_archive_ownerId_startTime ON bookings_archive(owner_id, start_time DESC, id DESC);
+CREATE INDEX bookings_archive_bookerId_itemId ON bookings_archive(booker_id, item_id);
+
+CREATE TABLE booking_events (
+                       id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                       booking_id BIGINT NOT NULL,
+                       item_id BIGINT NOT NULL,
+                       type varchar(20) NOT NULL,
+                       created timestamp NOT NULL,
+                       status varchar(20) DEFAULT 'PENDING' NOT NULL,
+                       attempts INTEGER DEFAULT 0 NOT NULL,
+                       dispatched timestamp
+);
+CREATE INDEX booking_events_status ON booking_events(status, id);
+CREATE INDEX booking_events_dispatched ON booking_events(dispatched);
 
 CREATE TABLE comments (
                         id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -0,0 +1,146 @@
+package ru.practicum.shareit.booking.integration;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.data.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.data.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.data.UserRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+import ru.practicum.shareit.validation.exeption.IncorrectParameterException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = {@Autowired})
+public class BookingConcurrencyBdTest {
+
+    private static final int THREADS = 8;
+
+    private final BookingService bookingService;
+    private final ItemService itemService;
+    private final UserServiceImpl userService;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final LocalDateTime start = LocalDateTime.now().plusDays(10).withNano(0);
+    private User owner;
+    private User booker;
+    private ItemDto item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.addUser(new User(null, "Owner", "concurrency-owner@mail.com"));
+        booker = userService.addUser(new User(null, "Booker", "concurrency-booker@mail.com"));
+        item = itemService.addItem(owner.getId(), ItemDto.builder()
+                .name("Палатка")
+                .description("Четырехместная")
+                .available(true)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteById(item.getId());
+        userRepository.deleteById(owner.getId());
+        userRepository.deleteById(booker.getId());
+    }
+
+    @Test
+    void concurrentApprovedBookingsDoNotOverlapTest() throws Exception {
+        List<Callable<Long>> tasks = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            LocalDateTime from = start.plusHours(i);
+            tasks.add(() -> bookingService.addBooking(booker.getId(), new BookingRequestDto(item.getId(),
+                    from, from.plusHours(THREADS), BookingStatus.APPROVED)).getId());
+        }
+
+        List<Throwable> failures = runConcurrently(tasks);
+
+        assertThat(failures.size(), equalTo(THREADS - 1));
+        failures.forEach(failure -> assertThat(failure, instanceOf(IncorrectParameterException.class)));
+        assertThat(countApproved(), equalTo(1L));
+    }
+
+    @Test
+    void concurrentApprovalsDoNotOverlapTest() throws Exception {
+        List<Callable<Long>> tasks = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            LocalDateTime from = start.plusHours(i);
+            Long bookingId = bookingService.addBooking(booker.getId(), new BookingRequestDto(item.getId(),
+                    from, from.plusHours(THREADS), BookingStatus.WAITING)).getId();
+            tasks.add(() -> bookingService.approvedBooking(owner.getId(), bookingId, true, null).getId());
+        }
+
+        List<Throwable> failures = runConcurrently(tasks);
+
+        assertThat(failures.size(), equalTo(THREADS - 1));
+        failures.forEach(failure -> assertThat(failure, instanceOf(IncorrectParameterException.class)));
+        assertThat(countApproved(), equalTo(1L));
+    }
+
+    @Test
+    void adjacentApprovedBookingsAreAllowedTest() {
+        bookingService.addBooking(booker.getId(), new BookingRequestDto(item.getId(),
+                start, start.plusHours(2), BookingStatus.APPROVED));
+        bookingService.addBooking(booker.getId(), new BookingRequestDto(item.getId(),
+                start.plusHours(2), start.plusHours(4), BookingStatus.APPROVED));
+
+        assertThat(countApproved(), equalTo(2L));
+    }
+
+    private long countApproved() {
+        return bookingRepository.findAllBookingByItemIdOrderByStartTimeAsc(item.getId()).stream()
+                .map(Booking::getStatus)
+                .filter(status -> status.equals(BookingStatus.APPROVED.ordinal()))
+                .count();
+    }
+
+    private static List<Throwable> runConcurrently(List<Callable<Long>> tasks) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+        CountDownLatch ready = new CountDownLatch(1);
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (Callable<Long> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    ready.await();
+                    return task.call();
+                }));
+            }
+            ready.countDown();
+            List<Throwable> failures = new ArrayList<>();
+            for (Future<Long> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    failures.add(e.getCause());
+                }
+            }
+            return failures;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
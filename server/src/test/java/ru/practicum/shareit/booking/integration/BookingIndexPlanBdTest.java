@@ -0,0 +1,121 @@
+package ru.practicum.shareit.booking.integration;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.RequestState;
+import ru.practicum.shareit.booking.data.BookingRepository;
+import ru.practicum.shareit.booking.data.BookingSpecifications;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.data.ItemRepository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static ru.practicum.shareit.booking.data.BookingSpecifications.inState;
+
+@Transactional
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "ru.practicum.shareit.booking.integration.BookingIndexPlanBdTest$SqlCapture")
+@RequiredArgsConstructor(onConstructor_ = {@Autowired})
+public class BookingIndexPlanBdTest {
+
+    private final EntityManager em;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+
+    @Test
+    void bookingsByBookerUseIndexTest() {
+        String plan = explain(() -> bookingRepository.findViews(
+                BookingSpecifications.<Booking>byBookerId(1L)
+                        .and(inState(RequestState.PAST, LocalDateTime.now())), 10));
+
+        assertThat(plan, containsString("bookings_bookerid_starttime"));
+        assertThat(plan, not(containsString("tablescan")));
+    }
+
+    @Test
+    void bookingsByOwnerUseIndexTest() {
+        String plan = explain(() -> bookingRepository.findViews(
+                BookingSpecifications.<Booking>byOwnerId(1L)
+                        .and(inState(RequestState.WAITING, LocalDateTime.now())), 10));
+
+        assertThat(plan, containsString("bookings_ownerid_starttime"));
+        assertThat(plan, not(containsString("bookings.tablescan")));
+    }
+
+    @Test
+    void bookingPointersUseIndexTest() {
+        String plan = explain(() -> itemRepository.updateBookingPointers(List.of(1L), LocalDateTime.now()));
+
+        assertThat(plan, containsString("bookings_itemid_starttime"));
+        assertThat(plan, not(containsString("bookings.tablescan")));
+    }
+
+    @Test
+    void archivableBookingsUseIndexTest() {
+        String plan = explain(() -> bookingRepository.lockArchivableBookingIds(LocalDateTime.now(), 10));
+
+        assertThat(plan, containsString("items_lastbookingid"));
+        assertThat(plan, containsString("items_nextbookingid"));
+        assertThat(plan, not(containsString("items.tablescan")));
+    }
+
+    private String explain(Runnable query) {
+        List<String> statements = SqlCapture.capture(query);
+        assertThat(statements, hasSize(1));
+        return em.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("explain " + statements.getFirst())) {
+                for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+                    statement.setObject(i, null);
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString().toLowerCase(Locale.ROOT);
+            }
+        });
+    }
+
+    public static class SqlCapture implements StatementInspector {
+
+        private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+        static List<String> capture(Runnable query) {
+            List<String> statements = new ArrayList<>();
+            STATEMENTS.set(statements);
+            try {
+                query.run();
+            } finally {
+                STATEMENTS.remove();
+            }
+            return statements;
+        }
+
+        @Override
+        public String inspect(String sql) {
+            List<String> statements = STATEMENTS.get();
+            if (statements != null) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -10,23 +10,44 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.MappingBooking;
+import ru.practicum.shareit.booking.data.BookingEventRepository;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingEventStatus;
+import ru.practicum.shareit.booking.model.BookingEventType;
+import ru.practicum.shareit.booking.outbox.BookingEventDispatcher;
+import ru.practicum.shareit.booking.service.BookingArchiver;
+import ru.practicum.shareit.booking.service.BookingExpirySweeper;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.MappingItem;
+import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserServiceImpl;
+import ru.practicum.shareit.validation.exeption.BadRequestException;
+import ru.practicum.shareit.validation.exeption.PreconditionFailedException;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @Transactional
 @SpringBootTest(properties = "jdbc.url=jdbc:h2:mem:shareit://localhost:8070/test",
@@ -35,6 +56,10 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 public class BookingServiceBdTest {
 
     private final BookingService bookingService;
+    private final BookingExpirySweeper bookingExpirySweeper;
+    private final BookingArchiver bookingArchiver;
+    private final BookingEventDispatcher bookingEventDispatcher;
+    private final BookingEventRepository bookingEventRepository;
     private final ItemService itemService;
     private final UserServiceImpl userService;
     private final EntityManager em;
@@ -59,6 +84,7 @@ public class BookingServiceBdTest {
         itemDto = itemService.addItem(user1.getId(), itemDto1);
         Item item = MappingItem.mapToItem(itemDto, user1.getId());
         item.setId(itemDto.getId());
+        item.setVersion(itemDto.getVersion());
 
         BookingRequestDto bookingDto = new BookingRequestDto(1L,start,end, BookingStatus.WAITING);
         em.persist(MappingBooking.mapToBooking(2L, bookingDto, item));
@@ -78,6 +104,7 @@ public class BookingServiceBdTest {
         assertThat(booking.getStartTime(), equalTo(bookingDto1.getStart()));
         assertThat(booking.getEndTime(), equalTo(bookingDto1.getEnd()));
         assertThat(booking.getStatus(), equalTo(BookingStatus.REJECTED.ordinal()));
+        assertThat(booking.getOwnerId(), equalTo(user1.getId()));
     }
 
     @Test
@@ -98,19 +125,345 @@ public class BookingServiceBdTest {
     @Test
     void approveBookingTest() {
         Long bookingResponseId = saveBooking();
-        bookingService.approvedBooking(user1.getId(), bookingResponseId, true);
+        bookingService.approvedBooking(user1.getId(), bookingResponseId, true, null);
 
         Booking booking = setBookingFromBd(bookingResponseId);
 
         assertThat(booking.getStatus(), equalTo(BookingStatus.APPROVED.ordinal()));
     }
 
+    @Test
+    void approveBookingWithStaleVersionTest() {
+        Long bookingResponseId = saveBooking();
+        Long version = bookingService.findBookingById(user1.getId(), bookingResponseId).getVersion();
+        BookingResponseDto approved = bookingService.approvedBooking(user1.getId(), bookingResponseId, true, version);
+
+        assertThat(approved.getVersion(), equalTo(version + 1));
+        assertThrows(PreconditionFailedException.class,
+                () -> bookingService.approvedBooking(user1.getId(), bookingResponseId, false, version));
+        assertThat(setBookingFromBd(bookingResponseId).getStatus(), equalTo(BookingStatus.APPROVED.ordinal()));
+    }
+
+    @Test
+    void approveBookingsTest() {
+        BookingRequestDto firstDto = new BookingRequestDto(itemDto.getId(), start.plusDays(10), end.plusDays(10), null);
+        BookingRequestDto secondDto = new BookingRequestDto(itemDto.getId(), start.plusDays(20), end.plusDays(20), null);
+        Long firstId = bookingService.addBooking(user2.getId(), firstDto).getId();
+        Long secondId = bookingService.addBooking(user2.getId(), secondDto).getId();
+
+        List<BookingApprovalResultDto> results = bookingService.approveBookings(user1.getId(), List.of(
+                new BookingApprovalDto(firstId, true),
+                new BookingApprovalDto(secondId, false)));
+        List<BookingApprovalResultDto> foreign = bookingService.approveBookings(user2.getId(), List.of(
+                new BookingApprovalDto(firstId, false)));
+
+        assertThat(results.get(0).getStatus(), equalTo(BookingStatus.APPROVED));
+        assertThat(results.get(1).getStatus(), equalTo(BookingStatus.REJECTED));
+        assertThat(statusFromBd(firstId), equalTo(BookingStatus.APPROVED.ordinal()));
+        assertThat(statusFromBd(secondId), equalTo(BookingStatus.REJECTED.ordinal()));
+        assertThat(foreign.get(0).getError(), notNullValue());
+        assertThat(statusFromBd(firstId), equalTo(BookingStatus.APPROVED.ordinal()));
+    }
+
+    @Test
+    void expireStaleWaitingBookingsTest() {
+        Item item = em.find(Item.class, itemDto.getId());
+        Booking stale = new Booking(null, item, user2.getId(), start.minusDays(2), start.minusDays(1),
+                BookingStatus.WAITING.ordinal(), item.getOwnerId(), null);
+        Booking upcoming = new Booking(null, item, user2.getId(), start.plusDays(5), end.plusDays(5),
+                BookingStatus.WAITING.ordinal(), item.getOwnerId(), null);
+        em.persist(stale);
+        em.persist(upcoming);
+        em.flush();
+
+        int expired = bookingExpirySweeper.sweep();
+
+        assertThat(expired, greaterThanOrEqualTo(1));
+        assertThat(statusFromBd(stale.getId()), equalTo(BookingStatus.EXPIRED.ordinal()));
+        assertThat(statusFromBd(upcoming.getId()), equalTo(BookingStatus.WAITING.ordinal()));
+        assertThat(eventTypes(stale.getId()), equalTo(List.of(BookingEventType.EXPIRED)));
+        assertThat(bookingIds(bookingService.getAllBookingsByUser(user2.getId(), "EXPIRED")),
+                equalTo(List.of(stale.getId())));
+        assertThat(bookingIds(bookingService.getAllBookingsByUser(user2.getId(), "REJECTED")),
+                not(hasItem(stale.getId())));
+        assertThat(eventTypes(upcoming.getId()), hasSize(0));
+    }
+
+    @Test
+    void approveExpiredBookingTest() {
+        Item item = em.find(Item.class, itemDto.getId());
+        Booking stale = new Booking(null, item, user2.getId(), start.minusDays(2), start.minusDays(1),
+                BookingStatus.WAITING.ordinal(), item.getOwnerId(), null);
+        em.persist(stale);
+        em.flush();
+        bookingExpirySweeper.sweep();
+        em.clear();
+
+        assertThrows(BadRequestException.class,
+                () -> bookingService.approvedBooking(user1.getId(), stale.getId(), true, null));
+        assertThrows(BadRequestException.class,
+                () -> bookingService.approvedBooking(user1.getId(), stale.getId(), false, null));
+        List<BookingApprovalResultDto> results = bookingService.approveBookings(user1.getId(), List.of(
+                new BookingApprovalDto(stale.getId(), true)));
+
+        assertThat(results.get(0).getStatus(), nullValue());
+        assertThat(results.get(0).getError(), equalTo("Срок подтверждения бронирования истек"));
+        assertThat(statusFromBd(stale.getId()), equalTo(BookingStatus.EXPIRED.ordinal()));
+    }
+
+    @Test
+    void commentAfterBookingExpiredTest() {
+        Item item = em.find(Item.class, itemDto.getId());
+        Booking stale = new Booking(null, item, user2.getId(), start.minusDays(2), start.minusDays(1),
+                BookingStatus.WAITING.ordinal(), item.getOwnerId(), null);
+        em.persist(stale);
+        em.flush();
+        bookingExpirySweeper.sweep();
+        em.clear();
+
+        CommentDto comment = itemService.setCommentInItem(user2.getId(), item.getId(),
+                CommentDto.builder().text("good").build());
+
+        assertThat(statusFromBd(stale.getId()), equalTo(BookingStatus.EXPIRED.ordinal()));
+        assertThat(comment.getId(), notNullValue());
+    }
+
+    @Test
+    void archiveEndedBookingsTest() {
+        Item item = em.find(Item.class, itemDto.getId());
+        Booking old = new Booking(null, item, user2.getId(), start.minusYears(3), start.minusYears(3).plusDays(2),
+                BookingStatus.APPROVED.ordinal(), item.getOwnerId(), null);
+        em.persist(old);
+        em.flush();
+
+        int archived = bookingArchiver.archive();
+
+        Number hot = (Number) em.createNativeQuery("select count(*) from bookings where id = ?1")
+                .setParameter(1, old.getId())
+                .getSingleResult();
+        List<Long> withoutArchive = new ArrayList<>();
+        bookingService.exportBookingsByItemsByUser(user1.getId(), "PAST", false)
+                .accept(booking -> withoutArchive.add(booking.getId()));
+        List<Long> withArchive = new ArrayList<>();
+        bookingService.exportBookingsByItemsByUser(user1.getId(), "PAST", true)
+                .accept(booking -> withArchive.add(booking.getId()));
+
+        assertThat(archived, greaterThanOrEqualTo(1));
+        assertThat(hot.longValue(), equalTo(0L));
+        assertThat(withoutArchive, not(hasItem(old.getId())));
+        assertThat(withArchive, hasItem(old.getId()));
+        assertThat(eventTypes(old.getId()), equalTo(List.of(BookingEventType.ARCHIVED)));
+    }
+
+    @Test
+    void readArchivedBookingTest() {
+        Item item = em.find(Item.class, itemDto.getId());
+        Booking old = new Booking(null, item, user2.getId(), start.minusYears(3), start.minusYears(3).plusDays(2),
+                BookingStatus.APPROVED.ordinal(), item.getOwnerId(), null);
+        em.persist(old);
+        em.flush();
+        bookingArchiver.archive();
+        em.clear();
+
+        assertThat(bookingIds(bookingService.getAllBookingsByUser(user2.getId(), "PAST")), hasItem(old.getId()));
+        assertThat(bookingIds(bookingService.getAllBookingsByUser(user2.getId(), "ALL")), hasItem(old.getId()));
+        assertThat(bookingIds(bookingService.getAllBookingsByUser(user2.getId(), "FUTURE")),
+                not(hasItem(old.getId())));
+        assertThat(bookingIds(bookingService.getAllBookingsByItemsByUser(user1.getId(), "ALL")),
+                hasItem(old.getId()));
+        assertThat(bookingIds(bookingService.getBookingsPageByUser(user2.getId(), "PAST", null, 10)
+                .getBookings()), hasItem(old.getId()));
+        assertThat(bookingIds(bookingService.getBookingsPageByItemsByUser(user1.getId(), "ALL", null, 10)
+                .getBookings()), hasItem(old.getId()));
+        assertThat(bookingService.findBookingById(user2.getId(), old.getId()).getId(), equalTo(old.getId()));
+        assertThat(bookingService.findBookingById(user1.getId(), old.getId()).getItem().getId(),
+                equalTo(item.getId()));
+    }
+
+    @Test
+    void bookingEventsDispatchTest() {
+        Long bookingId = saveBooking();
+        bookingService.approvedBooking(user1.getId(), bookingId, true, null);
+
+        List<BookingEventType> types = em.createQuery("SELECT e.type FROM BookingEvent e " +
+                        "WHERE e.bookingId = :id AND e.status = :status ORDER BY e.id", BookingEventType.class)
+                .setParameter("status", BookingEventStatus.PENDING)
+                .setParameter("id", bookingId)
+                .getResultList();
+        int dispatched = bookingEventDispatcher.dispatchPending();
+        Long pending = em.createQuery("SELECT count(e) FROM BookingEvent e " +
+                        "WHERE e.bookingId = :id AND e.status = :status", Long.class)
+                .setParameter("status", BookingEventStatus.PENDING)
+                .setParameter("id", bookingId)
+                .getSingleResult();
+
+        assertThat(types, equalTo(List.of(BookingEventType.CREATED, BookingEventType.APPROVED)));
+        assertThat(dispatched, greaterThanOrEqualTo(2));
+        assertThat(pending, equalTo(0L));
+    }
+
+    @Test
+    void bookingEventsDeadLetterAndPruneTest() {
+        Long bookingId = saveBooking();
+        List<Long> eventIds = em.createQuery("SELECT e.id FROM BookingEvent e WHERE e.bookingId = :id", Long.class)
+                .setParameter("id", bookingId)
+                .getResultList();
+
+        bookingEventRepository.markFailed(eventIds, 2);
+        BookingEventStatus afterFirst = eventStatus(eventIds.get(0));
+        bookingEventRepository.markFailed(eventIds, 2);
+        BookingEventStatus afterSecond = eventStatus(eventIds.get(0));
+        int deadPruned = bookingEventRepository.deleteDispatchedBefore(LocalDateTime.now().plusDays(1));
+        bookingEventRepository.markDispatched(eventIds, LocalDateTime.now().minusDays(30));
+        int pruned = bookingEventDispatcher.pruneDispatched();
+
+        assertThat(afterFirst, equalTo(BookingEventStatus.PENDING));
+        assertThat(afterSecond, equalTo(BookingEventStatus.DEAD));
+        assertThat(deadPruned, equalTo(0));
+        assertThat(pruned, greaterThanOrEqualTo(1));
+    }
+
+    @Test
+    void bookingPointersTest() {
+        BookingRequestDto nextDto = new BookingRequestDto(itemDto.getId(), start.plusDays(1), end.plusDays(1),
+                BookingStatus.WAITING);
+        Long nextId = bookingService.addBooking(user2.getId(), nextDto).getId();
+
+        ItemDto withNext = itemService.getItemsDtoByUserId(user1.getId()).iterator().next();
+        bookingService.approvedBooking(user1.getId(), nextId, false, null);
+        Collection<ItemDto> afterReject = itemService.getItemsDtoByUserId(user1.getId());
+
+        assertThat(withNext.getNextBooking().getId(), equalTo(nextId));
+        assertThat(afterReject.iterator().next().getLastBooking().getId(), not(equalTo(nextId)));
+        assertThat(afterReject.iterator().next().getNextBooking(), nullValue());
+    }
+
+    @Test
+    void exportBookingsByItemsByUserTest() {
+        Long futureId = bookingService.addBooking(user2.getId(), new BookingRequestDto(itemDto.getId(),
+                start.plusDays(1), end.plusDays(1), BookingStatus.WAITING)).getId();
+
+        List<BookingResponseDto> all = new ArrayList<>();
+        bookingService.exportBookingsByItemsByUser(user1.getId(), "ALL", false).accept(all::add);
+        List<BookingResponseDto> future = new ArrayList<>();
+        bookingService.exportBookingsByItemsByUser(user1.getId(), "FUTURE", false).accept(future::add);
+
+        assertThat(all, hasSize(2));
+        assertThat(all.get(0).getId(), equalTo(futureId));
+        assertThat(future, hasSize(1));
+        assertThat(future.get(0).getId(), equalTo(futureId));
+    }
+
+    @Test
+    void getBookingsByStateTest() {
+        User owner = userService.addUser(new User(null, "Gleb", "test3@mail.com"));
+        ItemDto ownerItem = itemService.addItem(owner.getId(), ItemDto.builder()
+                .name("drill")
+                .description("drill")
+                .available(true)
+                .build());
+        LocalDateTime now = LocalDateTime.now();
+        Long pastId = persistBooking(ownerItem.getId(), now.minusDays(5), now.minusDays(4), 1);
+        Long currentId = persistBooking(ownerItem.getId(), now.minusDays(1), now.plusDays(1), 1);
+        Long waitingId = persistBooking(ownerItem.getId(), now.plusDays(2), now.plusDays(3), 0);
+        Long rejectedId = persistBooking(ownerItem.getId(), now.plusDays(4), now.plusDays(5), 2);
+
+        assertThat(bookingIds(bookingService.getAllBookingsByItemsByUser(owner.getId(), "ALL")),
+                equalTo(List.of(rejectedId, waitingId, currentId, pastId)));
+        assertThat(bookingIds(bookingService.getAllBookingsByItemsByUser(owner.getId(), "PAST")),
+                equalTo(List.of(pastId)));
+        assertThat(bookingIds(bookingService.getAllBookingsByItemsByUser(owner.getId(), "CURRENT")),
+                equalTo(List.of(currentId)));
+        assertThat(bookingIds(bookingService.getAllBookingsByItemsByUser(owner.getId(), "FUTURE")),
+                equalTo(List.of(rejectedId, waitingId)));
+        assertThat(bookingIds(bookingService.getAllBookingsByItemsByUser(owner.getId(), "WAITING")),
+                equalTo(List.of(waitingId)));
+        assertThat(bookingIds(bookingService.getAllBookingsByUser(user2.getId(), "REJECTED")),
+                equalTo(List.of(rejectedId)));
+        assertThat(bookingIds(bookingService.getAllBookingsByUser(user2.getId(), "FUTURE")),
+                equalTo(List.of(rejectedId, waitingId)));
+    }
+
+    @Test
+    void getBookingsPageTest() {
+        User owner = userService.addUser(new User(null, "Gleb", "test3@mail.com"));
+        ItemDto ownerItem = itemService.addItem(owner.getId(), ItemDto.builder()
+                .name("drill")
+                .description("drill")
+                .available(true)
+                .build());
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expected.add(persistBooking(ownerItem.getId(), now.plusDays(i), now.plusDays(i).plusHours(1), 0));
+        }
+        expected.add(persistBooking(ownerItem.getId(), now.plusDays(2), now.plusDays(2).plusHours(2), 0));
+        expected.sort((first, second) -> {
+            int byStart = setBookingFromBd(second).getStartTime().compareTo(setBookingFromBd(first).getStartTime());
+            return byStart != 0 ? byStart : second.compareTo(first);
+        });
+
+        List<Long> paged = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            BookingPageDto page = bookingService.getBookingsPageByItemsByUser(owner.getId(), "ALL", cursor, 3);
+            paged.addAll(bookingIds(page.getBookings()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages, equalTo(2));
+        assertThat(paged, equalTo(expected));
+        assertThat(bookingIds(bookingService.getBookingsPageByUser(user2.getId(), "FUTURE", null, 3).getBookings()),
+                equalTo(expected.subList(0, 3)));
+    }
+
+    private Long persistBooking(Long itemId, LocalDateTime startTime, LocalDateTime endTime, Integer status) {
+        Item item = em.find(Item.class, itemId);
+        Booking booking = Booking.builder()
+                .item(item)
+                .bookerId(user2.getId())
+                .startTime(startTime)
+                .endTime(endTime)
+                .status(status)
+                .ownerId(item.getOwnerId())
+                .build();
+        em.persist(booking);
+        em.flush();
+        return booking.getId();
+    }
+
+    private BookingEventStatus eventStatus(Long eventId) {
+        String status = (String) em.createNativeQuery("select status from booking_events where id = ?1")
+                .setParameter(1, eventId)
+                .getSingleResult();
+        return BookingEventStatus.valueOf(status);
+    }
+
+    private List<BookingEventType> eventTypes(Long bookingId) {
+        return em.createQuery("SELECT e.type FROM BookingEvent e WHERE e.bookingId = :id ORDER BY e.id",
+                        BookingEventType.class)
+                .setParameter("id", bookingId)
+                .getResultList();
+    }
+
+    private static List<Long> bookingIds(Collection<BookingResponseDto> bookings) {
+        return bookings.stream().map(BookingResponseDto::getId).toList();
+    }
+
     private Long saveBooking() {
         BookingRequestDto bookingDto1 = new BookingRequestDto(itemDto.getId(),start,end, BookingStatus.REJECTED);
         BookingResponseDto bookingResponse = bookingService.addBooking(user2.getId(), bookingDto1);
         return bookingResponse.getId();
     }
 
+    private Integer statusFromBd(Long bookingId) {
+        return em.createQuery("SELECT b.status FROM Booking b WHERE b.id = :id", Integer.class)
+                .setParameter("id", bookingId)
+                .getSingleResult();
+    }
+
     private Booking setBookingFromBd(Long bookingId) {
         TypedQuery<Booking> query = em.createQuery("SELECT b FROM Booking b WHERE b.id = :id", Booking.class);
         return query.setParameter("id", bookingId).getSingleResult();
@@ -51,7 +51,7 @@ public class BookingDtoJsonTest {
 
     @Test
     void testBookingResponseDto() throws Exception {
-        Item item = new Item(4L,"TEST","test1",1L,true,5L, List.of());
+        Item item = new Item(4L,"TEST","test1",1L,true,5L, List.of(), 0L);
         BookingResponseDto bookingResponse = BookingResponseDto.builder()
                 .id(1L)
                 .booker(MappingBooker.mapToBooker(2L))
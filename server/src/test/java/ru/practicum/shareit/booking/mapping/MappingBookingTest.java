@@ -1,18 +1,24 @@
 package ru.practicum.shareit.booking.mapping;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.BookingCursor;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.MappingBooking;
+import ru.practicum.shareit.booking.RequestState;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.validation.exeption.BadRequestException;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -31,9 +37,9 @@ public class MappingBookingTest {
 
     @BeforeEach
     void setUp() {
-        item = new Item(1L,"Mike","test1",1L,true,null, List.of());
-        booking1 = new Booking(1L, item, 2L, start, end, 0);
-        booking2 = new Booking(2L, item, 2L, start.plusDays(1), end.plusDays(3), 1);
+        item = new Item(1L,"Mike","test1",1L,true,null, List.of(), 0L);
+        booking1 = new Booking(1L, item, 2L, start, end, 0, item.getOwnerId(), 0L);
+        booking2 = new Booking(2L, item, 2L, start.plusDays(1), end.plusDays(3), 1, item.getOwnerId(), 0L);
         bookings = List.of(booking1, booking2);
     }
 
@@ -64,8 +70,8 @@ public class MappingBookingTest {
 
     @Test
     void mapListBookingResponseDtoTest() {
-        Collection<BookingResponseDto> bookingResponseDto = MappingBooking.mapToBookingResponseDto(bookings);
-        Collection<BookingResponseDto> bookingResponseDebug = MappingBooking.mapToBookingResponseDto(bookings);
+        Collection<BookingResponseDto> bookingResponseDto = MappingBooking.mapToBookingResponseDto(bookings, Map.of());
+        Collection<BookingResponseDto> bookingResponseDebug = MappingBooking.mapToBookingResponseDto(bookings, Map.of());
 
         bookingResponseDto.forEach(
                 booking -> assertThat(bookingResponseDebug, hasItem(allOf(
@@ -82,6 +88,26 @@ public class MappingBookingTest {
         );
     }
 
+    @Test
+    void mapBookingViewResponseDtoTest() {
+        BookingView view = new BookingView(2L, start, end, 1, 3L, 4L, item.getId(), item.getName(),
+                item.getDescription(), item.getAvailable(), null, 5L);
+
+        BookingResponseDto bookingResponseDto = MappingBooking.mapToBookingViewResponseDto(List.of(view),
+                Map.of()).iterator().next();
+
+        assertThat(bookingResponseDto.getId(), equalTo(2L));
+        assertThat(bookingResponseDto.getStart(), equalTo(start));
+        assertThat(bookingResponseDto.getEnd(), equalTo(end));
+        assertThat(bookingResponseDto.getStatus(), equalTo(BookingStatus.APPROVED));
+        assertThat(bookingResponseDto.getBooker().getId(), equalTo(3L));
+        assertThat(bookingResponseDto.getItem().getName(), equalTo(item.getName()));
+        assertThat(bookingResponseDto.getItem().getComments(), empty());
+        assertThat(bookingResponseDto.getVersion(), equalTo(4L));
+        assertThat(bookingResponseDto.getItem().getVersion(), equalTo(5L));
+        assertThat(BookingCursor.of(view), equalTo(new BookingCursor(start, 2L)));
+    }
+
     @Test
     void mapToBookingTest() {
         BookingRequestDto requestDto = new BookingRequestDto(1L, start, end, BookingStatus.WAITING);
@@ -91,68 +117,34 @@ public class MappingBookingTest {
     }
 
     @Test
-    void mapToBookingStateCurrentTest() {
-        booking1.setStartTime(LocalDateTime.now().minusDays(1));
-        Collection<Booking> bookingResponse = MappingBooking.mapToBookingState(bookings, "CURRENT");
-
-        assertThat(bookingResponse, hasSize(1));
-        bookingResponse.forEach(booking -> bookingTest(booking, booking1));
-    }
-
-    @Test
-    void mapToBookingStatePastTest() {
-        booking1.setStartTime(LocalDateTime.now().minusDays(5));
-        booking1.setEndTime(LocalDateTime.now().minusDays(3));
-        Collection<Booking> bookingResponse = MappingBooking.mapToBookingState(bookings, "PAST");
-
-        assertThat(bookingResponse, hasSize(1));
-        bookingResponse.forEach(booking -> bookingTest(booking, booking1));
+    void mapToRequestStateTest() {
+        assertThat(MappingBooking.mapToRequestState("CURRENT"), equalTo(RequestState.CURRENT));
+        assertThat(MappingBooking.mapToRequestState("ALL"), equalTo(RequestState.ALL));
     }
 
     @Test
-    void mapToBookingStateFutureTest() {
-        booking1.setStartTime(LocalDateTime.now().minusDays(1));
-        Collection<Booking> bookingResponse = MappingBooking.mapToBookingState(bookings, "FUTURE");
-
-        assertThat(bookingResponse, hasSize(1));
-        bookingResponse.forEach(booking -> bookingTest(booking, booking2));
-    }
-
-    @Test
-    void mapToBookingStateWaitingTest() {
-        Collection<Booking> bookingResponse = MappingBooking.mapToBookingState(bookings, "WAITING");
-
-        assertThat(bookingResponse, hasSize(1));
-        bookingResponse.forEach(booking -> bookingTest(booking, booking1));
+    void mapToRequestStateUnknownTest() {
+        final BadRequestException exception = Assertions.assertThrows(
+                BadRequestException.class,
+                () -> MappingBooking.mapToRequestState("UNSUPPORTED")
+        );
+        Assertions.assertEquals("Unknown state: UNSUPPORTED", exception.getMessage());
     }
 
     @Test
-    void mapToBookingStateRejectedTest() {
-        booking2.setStatus(2);
-        Collection<Booking> bookingResponse = MappingBooking.mapToBookingState(bookings, "REJECTED");
+    void bookingCursorTest() {
+        String cursor = new BookingCursor(booking2.getStartTime(), booking2.getId()).encode();
 
-        assertThat(bookingResponse, hasSize(1));
-        bookingResponse.forEach(booking -> bookingTest(booking, booking2));
+        assertThat(BookingCursor.decode(cursor), equalTo(new BookingCursor(booking2.getStartTime(), 2L)));
     }
 
     @Test
-    void mapToBookingStateAllTest() {
-        Collection<Booking> bookingResponse = MappingBooking.mapToBookingState(bookings, "ALL");
-
-        assertThat(bookingResponse, hasSize(2));
-
-        bookingResponse.forEach(
-                booking -> assertThat(bookings, hasItem(allOf(
-                        hasProperty("id", equalTo(booking.getId())),
-                        hasProperty("startTime", equalTo(booking.getStartTime())),
-                        hasProperty("endTime", equalTo(booking.getEndTime())),
-                        hasProperty("status", equalTo(booking.getStatus())),
-                        hasProperty("item", allOf(
-                            hasProperty("id", equalTo(booking.getItem().getId())))),
-                        hasProperty("bookerId", equalTo(booking.getBookerId()))
-                        ))
-                )
+    void bookingCursorBadRequestTest() {
+        final BadRequestException exception = Assertions.assertThrows(
+                BadRequestException.class,
+                () -> BookingCursor.decode("broken")
         );
+        Assertions.assertEquals("Некорректный курсор: broken", exception.getMessage());
     }
 
     private void bookingTest(Booking booking, Booking test) {
@@ -7,11 +7,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.BookingController;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.MappingBooker;
@@ -23,11 +28,13 @@ import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -98,7 +105,7 @@ public class BookingControllerWithContextTest {
     @Test
     void updateBookingStatus() throws Exception {
         booking1.setStatus(BookingStatus.APPROVED);
-        when(bookingService.approvedBooking(anyLong(),anyLong(),anyBoolean())).thenReturn(booking1);
+        when(bookingService.approvedBooking(anyLong(),anyLong(),anyBoolean(),any())).thenReturn(booking1);
 
         mockMvc.perform(patch("/bookings/1?approved=true")
                         .header("X-Sharer-User-Id", 1L)
@@ -111,6 +118,51 @@ public class BookingControllerWithContextTest {
                 .andExpect(jsonPath("$.booker.id", is(booking1.getBooker().getId()), Long.class));
     }
 
+    @Test
+    void updateBookingStatusWithIfMatch() throws Exception {
+        booking1.setStatus(BookingStatus.APPROVED);
+        booking1.setVersion(2L);
+        when(bookingService.approvedBooking(anyLong(), anyLong(), anyBoolean(), eq(1L))).thenReturn(booking1);
+
+        mockMvc.perform(patch("/bookings/1?approved=true")
+                        .header("X-Sharer-User-Id", 1L)
+                        .header("If-Match", "W/\"1\"")
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2\""))
+                .andExpect(jsonPath("$.version").doesNotExist());
+    }
+
+    @Test
+    void updateBookingStatusConcurrentModification() throws Exception {
+        when(bookingService.approvedBooking(anyLong(), anyLong(), anyBoolean(), any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Booking.class, 1L));
+
+        mockMvc.perform(patch("/bookings/1?approved=true")
+                        .header("X-Sharer-User-Id", 1L)
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void approveBookings() throws Exception {
+        List<BookingApprovalDto> approvals = List.of(new BookingApprovalDto(1L, true), new BookingApprovalDto(2L, true));
+        when(bookingService.approveBookings(anyLong(), any())).thenReturn(List.of(
+                BookingApprovalResultDto.builder().bookingId(1L).status(BookingStatus.APPROVED).build(),
+                BookingApprovalResultDto.builder().bookingId(2L).error("Бронирование уже подтверждено").build()));
+
+        mockMvc.perform(patch("/bookings/approve")
+                        .content(mapper.writeValueAsString(approvals))
+                        .header("X-Sharer-User-Id", 1L)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].bookingId", is(1)))
+                .andExpect(jsonPath("$[0].status", is("APPROVED")))
+                .andExpect(jsonPath("$[1].bookingId", is(2)))
+                .andExpect(jsonPath("$[1].error", is("Бронирование уже подтверждено")));
+    }
+
     @Test
     void getBooking() throws Exception {
         when(bookingService.findBookingById(anyLong(),anyLong())).thenReturn(booking1);
@@ -141,6 +193,30 @@ public class BookingControllerWithContextTest {
         mockMvcBookingListTest(url);
     }
 
+    @Test
+    void getBookingsPageByUser() throws Exception {
+        when(bookingService.getBookingsPageByUser(1L, "ALL", "abc", 2))
+                .thenReturn(new BookingPageDto(response, "next"));
+
+        mockMvc.perform(get("/bookings?cursor=abc&size=2")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next"))
+                .andExpect(jsonPath("$[*].id", contains(1, 2)));
+    }
+
+    @Test
+    void getLastBookingsPageByOwner() throws Exception {
+        when(bookingService.getBookingsPageByItemsByUser(1L, "ALL", null, 10))
+                .thenReturn(new BookingPageDto(List.of(booking1), null));
+
+        mockMvc.perform(get("/bookings/owner?size=10")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$[*].id", contains(1)));
+    }
+
     @Test
     void createBookingNotFoundException() throws Exception {
         when(bookingService.addBooking(anyLong(), any())).thenThrow(new NotFoundException("Бронирование с ID 1 не найдено"));
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.booking.unit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.data.BookingEventRepository;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingEventStatus;
+import ru.practicum.shareit.booking.model.BookingEventType;
+import ru.practicum.shareit.booking.outbox.BookingEventDispatcher;
+import ru.practicum.shareit.booking.outbox.BookingEventSubscriber;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingEventDispatcherUnitTest {
+    @Mock
+    private BookingEventRepository bookingEventRepo;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Long> received = new ArrayList<>();
+
+    @Test
+    void dispatchPendingMarksDeliveredEventsTest() {
+        BookingEventDispatcher dispatcher = dispatcher(events -> events.forEach(event -> received.add(event.getId())));
+        when(bookingEventRepo.lockPendingEvents(anyInt())).thenReturn(List.of(event(1L), event(2L)));
+
+        int dispatched = dispatcher.dispatchPending();
+
+        assertThat(dispatched, is(2));
+        assertThat(received, equalTo(List.of(1L, 2L)));
+        verify(bookingEventRepo).markDispatched(eq(List.of(1L, 2L)), any());
+        verify(bookingEventRepo, never()).markFailed(any(), anyInt());
+    }
+
+    @Test
+    void dispatchPendingCountsFailedAttemptsPerEventTest() {
+        BookingEventDispatcher dispatcher = dispatcher(events -> events.forEach(event -> {
+            if (event.getId() == 2L) {
+                throw new IllegalStateException("Подписчик недоступен");
+            }
+            received.add(event.getId());
+        }));
+        when(bookingEventRepo.lockPendingEvents(anyInt())).thenReturn(List.of(event(1L), event(2L), event(3L)));
+
+        int dispatched = dispatcher.dispatchPending();
+
+        assertThat(dispatched, is(2));
+        verify(bookingEventRepo).markDispatched(eq(List.of(1L, 3L)), any());
+        verify(bookingEventRepo).markFailed(List.of(2L), 3);
+    }
+
+    @Test
+    void dispatchPendingWithoutEventsTest() {
+        BookingEventDispatcher dispatcher = dispatcher(events -> received.add(0L));
+        when(bookingEventRepo.lockPendingEvents(anyInt())).thenReturn(List.of());
+
+        assertThat(dispatcher.dispatchPending(), is(0));
+        assertThat(received.isEmpty(), is(true));
+    }
+
+    @SuppressWarnings("unchecked")
+    private BookingEventDispatcher dispatcher(BookingEventSubscriber subscriber) {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+        return new BookingEventDispatcher(bookingEventRepo, List.of(subscriber), transactionTemplate, 10, 3, 7);
+    }
+
+    private static BookingEvent event(Long id) {
+        return new BookingEvent(id, id, 1L, BookingEventType.CREATED, LocalDateTime.now(),
+                BookingEventStatus.PENDING, 0, null);
+    }
+}
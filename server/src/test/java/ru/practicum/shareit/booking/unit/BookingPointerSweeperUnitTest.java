@@ -0,0 +1,58 @@
+package ru.practicum.shareit.booking.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.service.BookingPointerSweeper;
+import ru.practicum.shareit.item.data.ItemRepository;
+import ru.practicum.shareit.item.service.ItemViewCache;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingPointerSweeperUnitTest {
+    @Mock
+    private ItemRepository itemRepo;
+    @Mock
+    private ItemViewCache itemViewCache;
+
+    private BookingPointerSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        sweeper = new BookingPointerSweeper(itemRepo, itemViewCache, 100);
+    }
+
+    @Test
+    void sweepInvalidatesItemViewsTest() {
+        when(itemRepo.findItemIdsWithStartedNextBooking(any(), anyInt())).thenReturn(List.of(1L, 2L));
+
+        int swept = sweeper.sweep();
+
+        assertThat(swept, is(2));
+        verify(itemRepo).updateBookingPointers(eq(List.of(1L, 2L)), any());
+        verify(itemViewCache).invalidate(1L);
+        verify(itemViewCache).invalidate(2L);
+    }
+
+    @Test
+    void sweepWithoutStartedBookingsTest() {
+        when(itemRepo.findItemIdsWithStartedNextBooking(any(), anyInt())).thenReturn(List.of());
+
+        assertThat(sweeper.sweep(), is(0));
+        verify(itemRepo, never()).updateBookingPointers(any(), any());
+        verify(itemViewCache, never()).invalidate(anyLong());
+    }
+}
@@ -1,28 +1,45 @@
 package ru.practicum.shareit.booking.unit;
 
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.MappingBooking;
+import ru.practicum.shareit.booking.data.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.data.BookingBatchRepository;
 import ru.practicum.shareit.booking.data.BookingRepository;
+import ru.practicum.shareit.booking.data.CommentRepository;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingEventType;
+import ru.practicum.shareit.booking.outbox.BookingOutbox;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.booking.service.ItemBookingLocks;
 import ru.practicum.shareit.item.MappingItem;
-import ru.practicum.shareit.item.data.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.data.ItemRepository;
+import ru.practicum.shareit.item.service.CommentEligibilityIndex;
+import ru.practicum.shareit.item.service.ItemViewCache;
 import ru.practicum.shareit.user.MappingBooker;
-import ru.practicum.shareit.user.data.UserRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.validation.booking.ValidationBooking;
 import ru.practicum.shareit.validation.exeption.BadRequestException;
+import ru.practicum.shareit.validation.exeption.IncorrectParameterException;
 import ru.practicum.shareit.validation.exeption.NotFoundException;
+import ru.practicum.shareit.validation.exeption.PreconditionFailedException;
 import ru.practicum.shareit.validation.item.ValidationItem;
 import ru.practicum.shareit.validation.user.ValidationUser;
 
@@ -37,6 +54,9 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -50,9 +70,27 @@ public class BookingServiceUnitTest {
     @Mock
     private BookingRepository bookingRepo;
     @Mock
-    private UserRepository userRepo;
+    private ArchivedBookingRepository archivedBookingRepo;
+    @Mock
+    private BookingBatchRepository bookingBatchRepo;
     @Mock
     private ItemRepository itemRepo;
+    @Mock
+    private CommentRepository commentRepo;
+    @Mock
+    private ItemViewCache itemViewCache;
+    @Mock
+    private ItemAvailabilityIndex itemAvailabilityIndex;
+    @Mock
+    private CommentEligibilityIndex commentEligibilityIndex;
+    @Mock
+    private ItemBookingLocks itemBookingLocks;
+    @Mock
+    private BookingOutbox bookingOutbox;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private TransactionTemplate transactionTemplate;
 
     private BookingServiceImpl bookingService;
     private BookingResponseDto booking1;
@@ -70,12 +108,21 @@ public class BookingServiceUnitTest {
                 validItem,
                 validBooking,
                 bookingRepo,
+                archivedBookingRepo,
+                bookingBatchRepo,
                 itemRepo,
-                userRepo
+                commentRepo,
+                itemViewCache,
+                itemAvailabilityIndex,
+                commentEligibilityIndex,
+                itemBookingLocks,
+                bookingOutbox,
+                entityManager,
+                transactionTemplate
         );
 
-        item1 = new Item(4L,"Mike","test1",1L,true,null,List.of());
-        item2 = new Item(5L,"Gleb","test2",1L,true,null,List.of());
+        item1 = new Item(4L,"Mike","test1",1L,true,null,List.of(), 0L);
+        item2 = new Item(5L,"Gleb","test2",1L,true,null,List.of(), 0L);
 
         booking1 = BookingResponseDto.builder()
                 .id(1L)
@@ -101,10 +148,10 @@ public class BookingServiceUnitTest {
     @Test
     void createBookingWhereStatusNullTest() {
         BookingRequestDto bookingRequest = new BookingRequestDto(1L, start, end, null);
-        Booking bookingAfterSave = new Booking(1L, item1, 2L, start, end, 0);
+        Booking bookingAfterSave = new Booking(1L, item1, 2L, start, end, 0, item1.getOwnerId(), 0L);
 
         when(validBooking.validationBookingDto(any(), anyLong())).thenReturn(item1);
-        when(bookingRepo.save(any())).thenReturn(bookingAfterSave);
+        when(bookingRepo.saveAndFlush(any())).thenReturn(bookingAfterSave);
 
         BookingResponseDto booking = bookingService.addBooking(2L, bookingRequest);
 
@@ -114,16 +161,32 @@ public class BookingServiceUnitTest {
     @Test
     void createBookingWhereStatusNotNullTest() {
         BookingRequestDto bookingRequest = new BookingRequestDto(5L, start.plusDays(3), end.plusDays(5), BookingStatus.REJECTED);
-        Booking bookingAfterSave = new Booking(2L, item2, 3L, start.plusDays(3), end.plusDays(5), 2);
+        Booking bookingAfterSave = new Booking(2L, item2, 3L, start.plusDays(3), end.plusDays(5), 2, item2.getOwnerId(), 0L);
 
         when(validBooking.validationBookingDto(any(), anyLong())).thenReturn(item2);
-        when(bookingRepo.save(any())).thenReturn(bookingAfterSave);
+        when(bookingRepo.saveAndFlush(any())).thenReturn(bookingAfterSave);
 
         BookingResponseDto booking = bookingService.addBooking(2L, bookingRequest);
 
         testBooking(booking, booking2);
     }
 
+    @Test
+    void createBookingOverlapApprovedTest() {
+        BookingRequestDto bookingRequest = new BookingRequestDto(4L, start, end, null);
+
+        when(validBooking.validationBookingDto(any(), anyLong())).thenReturn(item1);
+        when(itemAvailabilityIndex.hasApprovedOverlap(4L, start, end)).thenReturn(true);
+
+        final IncorrectParameterException exception = Assertions.assertThrows(
+                IncorrectParameterException.class,
+                () -> bookingService.addBooking(2L, bookingRequest)
+        );
+        Assertions.assertEquals("Вещь уже забронирована на указанный период", exception.getMessage());
+        verify(itemBookingLocks).lockUntilCompletion(4L);
+        verify(bookingRepo, never()).saveAndFlush(any());
+    }
+
     @Test
     void createBookingWhereUserNotFoundException() {
         when(validUser.validationUserById(anyLong()))
@@ -162,69 +225,143 @@ public class BookingServiceUnitTest {
 
     @Test
     void approveBookingWithApprovedStatusTest() {
-        Booking booking = new Booking(1L, item1, 2L, start, end, 0);
-        Booking bookingResult = new Booking(1L, item1, 2L, start, end, 1);
+        Booking booking = new Booking(1L, item1, 2L, start, end, 0, item1.getOwnerId(), 0L);
+        Booking bookingResult = new Booking(1L, item1, 2L, start, end, 1, item1.getOwnerId(), 0L);
         User user = new User(1L, "test", "test@mail.com");
 
-        when(userRepo.findById(anyLong())).thenReturn(Optional.of(user));
+        when(validUser.findUserById(anyLong())).thenReturn(Optional.of(user));
         when(validBooking.validationBookingById(anyLong())).thenReturn(booking);
-        when(bookingRepo.save(any())).thenReturn(bookingResult);
+        when(bookingRepo.saveAndFlush(any())).thenReturn(bookingResult);
 
-        BookingResponseDto booking1 = bookingService.approvedBooking(1L, booking.getId(), true);
+        BookingResponseDto booking1 = bookingService.approvedBooking(1L, booking.getId(), true, null);
 
         assertThat(booking1.getStatus(), equalTo(BookingStatus.APPROVED));
     }
 
     @Test
     void approveBookingWithRejectedStatusTest() {
-        Booking booking = new Booking(1L, item1, 2L, start, end, 0);
-        Booking bookingResult = new Booking(1L, item1, 2L, start, end, 2);
+        Booking booking = new Booking(1L, item1, 2L, start, end, 0, item1.getOwnerId(), 0L);
+        Booking bookingResult = new Booking(1L, item1, 2L, start, end, 2, item1.getOwnerId(), 0L);
         User user = new User(1L, "test", "test@mail.com");
 
-        when(userRepo.findById(anyLong())).thenReturn(Optional.of(user));
+        when(validUser.findUserById(anyLong())).thenReturn(Optional.of(user));
         when(validBooking.validationBookingById(anyLong())).thenReturn(booking);
-        when(bookingRepo.save(any())).thenReturn(bookingResult);
+        when(bookingRepo.saveAndFlush(any())).thenReturn(bookingResult);
 
-        BookingResponseDto booking1 = bookingService.approvedBooking(1L, booking.getId(), false);
+        BookingResponseDto booking1 = bookingService.approvedBooking(1L, booking.getId(), false, null);
 
         assertThat(booking1.getStatus(), equalTo(BookingStatus.REJECTED));
     }
 
     @Test
     void approveBookingBadRequestExceptionTestOne() {
-        Booking booking = new Booking(1L, item1, 2L, start, end, 1);
+        Booking booking = new Booking(1L, item1, 2L, start, end, 1, item1.getOwnerId(), 0L);
         User user = new User(2L, "test", "test@mail.com");
 
-        when(userRepo.findById(anyLong())).thenReturn(Optional.of(user));
+        when(validUser.findUserById(anyLong())).thenReturn(Optional.of(user));
         when(validBooking.validationBookingById(anyLong())).thenReturn(booking);
 
         final BadRequestException exception = Assertions.assertThrows(
                 BadRequestException.class,
-                () -> bookingService.approvedBooking(1L, booking.getId(), true)
+                () -> bookingService.approvedBooking(1L, booking.getId(), true, null)
         );
         Assertions.assertEquals("Бронирование уже подтверждено", exception.getMessage());
     }
 
     @Test
-    void approveBookingBadRequestExceptionTestTwo() {
-        Booking booking = new Booking(1L, item1, 2L, start, end, 1);
-        User user = new User(2L, "test", "test@mail.com");
+    void approveExpiredBookingBadRequestExceptionTest() {
+        Booking booking = new Booking(1L, item1, 2L, start, end, 3, item1.getOwnerId(), 1L);
+        User user = new User(1L, "test", "test@mail.com");
 
-        when(userRepo.findById(anyLong())).thenReturn(Optional.of(user));
+        when(validUser.findUserById(anyLong())).thenReturn(Optional.of(user));
         when(validBooking.validationBookingById(anyLong())).thenReturn(booking);
 
-        final BadRequestException exception = Assertions.assertThrows(
+        final BadRequestException approve = Assertions.assertThrows(
                 BadRequestException.class,
-                () -> bookingService.approvedBooking(user.getId(), booking.getId(), false)
+                () -> bookingService.approvedBooking(1L, booking.getId(), true, null)
         );
-        Assertions.assertEquals("Бронирование может подтверждать только собственник вещи", exception.getMessage());
+        final BadRequestException reject = Assertions.assertThrows(
+                BadRequestException.class,
+                () -> bookingService.approvedBooking(1L, booking.getId(), false, null)
+        );
+        Assertions.assertEquals("Срок подтверждения бронирования истек", approve.getMessage());
+        Assertions.assertEquals("Срок подтверждения бронирования истек", reject.getMessage());
+        verify(bookingRepo, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void approveExpiredBookingsTest() {
+        User user = new User(1L, "test", "test@mail.com");
+        Booking expired = new Booking(1L, item1, 2L, start, end, 3, item1.getOwnerId(), 1L);
+
+        when(validUser.findUserById(anyLong())).thenReturn(Optional.of(user));
+        when(bookingRepo.findAll(ArgumentMatchers.<Specification<Booking>>any())).thenReturn(List.of(expired));
+        when(bookingBatchRepo.updateStatuses(any(), any())).thenReturn(new int[0]);
+
+        List<BookingApprovalResultDto> results = bookingService.approveBookings(1L, List.of(
+                new BookingApprovalDto(1L, false)));
+
+        assertThat(results.get(0).getStatus(), nullValue());
+        assertThat(results.get(0).getError(), equalTo("Срок подтверждения бронирования истек"));
+        verify(bookingBatchRepo).updateStatuses(List.of(), List.of());
+    }
+
+    @Test
+    void approveBookingPreconditionFailedExceptionTest() {
+        Booking booking = new Booking(1L, item1, 2L, start, end, 0, item1.getOwnerId(), 3L);
+        User user = new User(1L, "test", "test@mail.com");
+
+        when(validUser.findUserById(anyLong())).thenReturn(Optional.of(user));
+        when(validBooking.validationBookingById(anyLong())).thenReturn(booking);
+
+        final PreconditionFailedException exception = Assertions.assertThrows(
+                PreconditionFailedException.class,
+                () -> bookingService.approvedBooking(1L, booking.getId(), true, 2L)
+        );
+        Assertions.assertEquals("Бронирование с ID 1 было изменено другим запросом", exception.getMessage());
+        verify(bookingRepo, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void approveBookingsTest() {
+        User user = new User(1L, "test", "test@mail.com");
+        Booking waiting = new Booking(1L, item1, 2L, start, end, 0, item1.getOwnerId(), 0L);
+        Booking overlapping = new Booking(2L, item1, 3L, start.plusHours(1), end, 0, item1.getOwnerId(), 0L);
+        Booking approved = new Booking(3L, item2, 2L, start, end, 1, item2.getOwnerId(), 1L);
+        Booking changed = new Booking(4L, item2, 2L, end, end.plusDays(1), 0, item2.getOwnerId(), 0L);
+
+        when(validUser.findUserById(anyLong())).thenReturn(Optional.of(user));
+        when(bookingRepo.findAll(ArgumentMatchers.<Specification<Booking>>any()))
+                .thenReturn(List.of(waiting, overlapping, approved, changed));
+        when(bookingBatchRepo.updateStatuses(any(), any())).thenReturn(new int[]{1, 0});
+
+        List<BookingApprovalResultDto> results = bookingService.approveBookings(1L, List.of(
+                new BookingApprovalDto(1L, true),
+                new BookingApprovalDto(2L, true),
+                new BookingApprovalDto(3L, true),
+                new BookingApprovalDto(1L, false),
+                new BookingApprovalDto(5L, false),
+                new BookingApprovalDto(4L, false)));
+
+        assertThat(results, hasSize(6));
+        assertThat(results.get(0).getStatus(), equalTo(BookingStatus.APPROVED));
+        assertThat(results.get(0).getError(), nullValue());
+        assertThat(results.get(1).getError(), equalTo("Вещь уже забронирована на указанный период"));
+        assertThat(results.get(2).getError(), equalTo("Бронирование уже подтверждено"));
+        assertThat(results.get(3).getError(), equalTo("Бронирование уже указано в запросе"));
+        assertThat(results.get(4).getError(), equalTo("Бронирование с ID 5 не найдено у владельца с ID 1"));
+        assertThat(results.get(5).getStatus(), nullValue());
+        assertThat(results.get(5).getError(), equalTo("Бронирование было изменено параллельным запросом"));
+        verify(bookingBatchRepo).updateStatuses(List.of(waiting, changed), List.of(1, 2));
+        verify(bookingOutbox).appendAll(List.of(waiting), BookingEventType.APPROVED);
+        verify(bookingOutbox).appendAll(List.of(), BookingEventType.REJECTED);
     }
 
     @Test
     void approveBookingBadRequestExceptionTestThree() {
         final BadRequestException exception = Assertions.assertThrows(
                 BadRequestException.class,
-                () -> bookingService.approvedBooking(1L, anyLong(), false)
+                () -> bookingService.approvedBooking(1L, anyLong(), false, null)
         );
         Assertions.assertEquals("Пользователь с ID 1 не зарегистрирован", exception.getMessage());
     }
@@ -233,12 +370,12 @@ public class BookingServiceUnitTest {
     void approveValidBookingNotFoundExceptionTest() {
         User user = new User(1L, "test", "test@mail.com");
 
-        when(userRepo.findById(anyLong())).thenReturn(Optional.of(user));
+        when(validUser.findUserById(anyLong())).thenReturn(Optional.of(user));
         when(validBooking.validationBookingById(anyLong())).thenThrow(new NotFoundException("Бронирование с ID 1 не найдено"));
 
         final NotFoundException exception = Assertions.assertThrows(
                 NotFoundException.class,
-                () -> bookingService.approvedBooking(1L, 1L, true)
+                () -> bookingService.approvedBooking(1L, 1L, true, null)
         );
         Assertions.assertEquals("Бронирование с ID 1 не найдено", exception.getMessage());
     }
@@ -246,25 +383,25 @@ public class BookingServiceUnitTest {
     @Test
     void approveValidItemNotFoundExceptionTest() {
         User user = new User(1L, "test", "test@mail.com");
-        Booking booking = new Booking(1L, item1, 2L, start, end, 0);
+        Booking booking = new Booking(1L, item1, 2L, start, end, 0, item1.getOwnerId(), 0L);
 
-        when(userRepo.findById(anyLong())).thenReturn(Optional.of(user));
+        when(validUser.findUserById(anyLong())).thenReturn(Optional.of(user));
         when(validBooking.validationBookingById(anyLong())).thenReturn(booking);
-        when(validItem.validationItemByUser(item1.getId(), user.getId()))
-                .thenThrow(new NotFoundException(item1.getName() + " не принадлежит пользователю с ID " + user.getId()));
+        doThrow(new NotFoundException(item1.getName() + " не принадлежит пользователю с ID " + user.getId()))
+                .when(validItem).validationItemOwner(item1.getId(), user.getId());
 
         final NotFoundException exception = Assertions.assertThrows(
                 NotFoundException.class,
-                () -> bookingService.approvedBooking(1L, 1L, true)
+                () -> bookingService.approvedBooking(1L, 1L, true, null)
         );
         Assertions.assertEquals(item1.getName() + " не принадлежит пользователю с ID " + user.getId(), exception.getMessage());
     }
 
     @Test
     void findBookingByIdTest() {
-        Booking booking = new Booking(1L, item1, 2L, start, end, 0);
+        Booking booking = new Booking(1L, item1, 2L, start, end, 0, item1.getOwnerId(), 0L);
 
-        when(validBooking.validationBookingById(anyLong())).thenReturn(booking);
+        when(validBooking.validationBookingWithArchiveById(anyLong())).thenReturn(booking);
 
         BookingResponseDto bookingResponseDto = bookingService.findBookingById(2L, booking.getId());
 
@@ -273,7 +410,7 @@ public class BookingServiceUnitTest {
 
     @Test
     void findBookingByIdValidBookingNotFoundExceptionTest() {
-        when(validBooking.validationBookingById(anyLong())).thenThrow(new NotFoundException("Бронирование с ID 1 не найдено"));
+        when(validBooking.validationBookingWithArchiveById(anyLong())).thenThrow(new NotFoundException("Бронирование с ID 1 не найдено"));
 
         final NotFoundException exception = Assertions.assertThrows(
                 NotFoundException.class,
@@ -284,11 +421,11 @@ public class BookingServiceUnitTest {
 
     @Test
     void findBookingByIdValidItemNotFoundExceptionTest() {
-        Booking booking = new Booking(1L, item1, 1L, start, end, 0);
+        Booking booking = new Booking(1L, item1, 1L, start, end, 0, item1.getOwnerId(), 0L);
 
-        when(validBooking.validationBookingById(anyLong())).thenReturn(booking);
-        when(validItem.validationItemByUser(anyLong(), anyLong()))
-                .thenThrow(new NotFoundException(item1.getName() + " не принадлежит пользователю с ID " + 1));
+        when(validBooking.validationBookingWithArchiveById(anyLong())).thenReturn(booking);
+        doThrow(new NotFoundException(item1.getName() + " не принадлежит пользователю с ID " + 1))
+                .when(validItem).validationItemOwner(anyLong(), anyLong());
 
         final NotFoundException exception = Assertions.assertThrows(
                 NotFoundException.class,
@@ -299,12 +436,12 @@ public class BookingServiceUnitTest {
 
     @Test
     void getAllBookingsByUserTest() {
-        Booking bookingTest1 = new Booking(1L, item1, 2L, start.plusDays(1), end.plusDays(3), 0);
-        Booking bookingTest2 = new Booking(2L, item1, 2L, start.plusDays(7), end.plusDays(10), 0);
+        Booking bookingTest1 = new Booking(1L, item1, 2L, start.plusDays(1), end.plusDays(3), 0, item1.getOwnerId(), 0L);
+        Booking bookingTest2 = new Booking(2L, item1, 2L, start.plusDays(7), end.plusDays(10), 0, item1.getOwnerId(), 0L);
         List<Booking> bookings = List.of(bookingTest1, bookingTest2);
 
-        when(bookingRepo.findAllBookingByBookerIdOrderByStartTimeDesc(bookingTest1.getBookerId()))
-                .thenReturn(bookings);
+        when(bookingRepo.findViews(ArgumentMatchers.<Specification<Booking>>any()))
+                .thenReturn(bookings.stream().map(this::toView).toList());
 
         Collection<BookingResponseDto> bookingResponse = bookings.stream().map(MappingBooking::mapToBookingResponseDto).toList();
         Collection<BookingResponseDto> bookingResult = bookingService.getAllBookingsByUser(2L, "FUTURE");
@@ -327,12 +464,12 @@ public class BookingServiceUnitTest {
 
     @Test
     void getAllBookingsByItemsByUserTest() {
-        Booking bookingTest1 = new Booking(1L, item1, 2L, start, end, 2);
-        Booking bookingTest2 = new Booking(2L, item2, 2L, start, end, 2);
+        Booking bookingTest1 = new Booking(1L, item1, 2L, start, end, 2, item1.getOwnerId(), 0L);
+        Booking bookingTest2 = new Booking(2L, item2, 2L, start, end, 2, item2.getOwnerId(), 0L);
         List<Booking> bookings = List.of(bookingTest1, bookingTest2);
 
-        when(itemRepo.findByOwnerId(anyLong())).thenReturn(response);
-        when(bookingRepo.findAllBookingByItemIdInOrderByStartTimeDesc(anyList())).thenReturn(bookings);
+        when(bookingRepo.findViews(ArgumentMatchers.<Specification<Booking>>any()))
+                .thenReturn(bookings.stream().map(this::toView).toList());
 
         Collection<BookingResponseDto> bookingResponse = bookings.stream().map(MappingBooking::mapToBookingResponseDto).toList();
         Collection<BookingResponseDto> bookingResult = bookingService.getAllBookingsByItemsByUser(2L, "REJECTED");
@@ -353,6 +490,15 @@ public class BookingServiceUnitTest {
         Assertions.assertEquals("Пользователь с ID 1 не зарегистрирован", exception.getMessage());
     }
 
+    @Test
+    void getAllBookingsByUserUnknownStateTest() {
+        final BadRequestException exception = Assertions.assertThrows(
+                BadRequestException.class,
+                () -> bookingService.getAllBookingsByUser(1L, "UNSUPPORTED")
+        );
+        Assertions.assertEquals("Unknown state: UNSUPPORTED", exception.getMessage());
+    }
+
     private void testItemFromBookingDto(ItemDto itemDto, ItemDto itemDtoDebug) {
         assertThat(itemDto.getName(), equalTo(itemDtoDebug.getName()));
         assertThat(itemDto.getDescription(), equalTo(itemDtoDebug.getDescription()));
@@ -369,6 +515,13 @@ public class BookingServiceUnitTest {
         testItemFromBookingDto(booking.getItem(), bookingResult.getItem());
     }
 
+    private BookingView toView(Booking booking) {
+        Item item = booking.getItem();
+        return new BookingView(booking.getId(), booking.getStartTime(), booking.getEndTime(), booking.getStatus(),
+                booking.getBookerId(), booking.getVersion(), item.getId(), item.getName(), item.getDescription(),
+                item.getAvailable(), item.getRequestId(), item.getVersion());
+    }
+
     private void testBookingList(Collection<BookingResponseDto> bookingResponse, Collection<BookingResponseDto> bookingResult) {
         bookingResponse.forEach(
                 booking -> assertThat(bookingResult, hasItem(allOf(
@@ -8,20 +8,33 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingPointerSweeper;
 import ru.practicum.shareit.item.MappingItem;
+import ru.practicum.shareit.item.data.ItemRepository;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserServiceImpl;
+import ru.practicum.shareit.validation.exeption.BadRequestException;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 
 import static org.hamcrest.CoreMatchers.allOf;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @Transactional()
 @SpringBootTest(properties = "jdbc.url=jdbc:h2:mem:shareit://localhost:9090/test",
@@ -30,22 +43,22 @@ import static org.hamcrest.Matchers.*;
 public class ItemServiceBdTest {
 
     private final ItemServiceImpl itemService;
+    private final ItemRepository itemRepository;
+    private final BookingPointerSweeper bookingPointerSweeper;
     private final UserServiceImpl userService;
     private final EntityManager em;
     private List<ItemDto> itemsDto;
+    private User user1;
 
     @BeforeEach
     void setUp() {
-        User user1 = new User(null,"Mike", "test1@mail.com");
+        user1 = new User(null,"Mike", "test1@mail.com");
         em.persist(user1);
 
         itemsDto = List.of(
                 createItemDto("dsfg", "sdfsd", true),
                 createItemDto("dsfgse", "sdsdffsd", true));
-        List<Item> items = itemsDto.stream()
-                .map(itemDto -> MappingItem.mapToItem(itemDto, 1L))
-                .toList();
-        items.forEach(em::persist);
+        itemsDto.forEach(itemDto -> itemService.addItem(user1.getId(), itemDto));
         em.flush();
     }
 
@@ -67,12 +80,35 @@ public class ItemServiceBdTest {
         assertThat(result.getAvailable(), is(itemDtoResult.getAvailable()));
     }
 
+    @Test
+    void createItemsTest() {
+        List<ItemDto> itemsTest = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            itemsTest.add(createItemDto("batch" + i, "description" + i, true));
+        }
+        itemsTest.add(600, createItemDto(null, "broken", true));
+
+        List<ItemBatchResultDto> results = List.copyOf(itemService.addItems(user1.getId(), itemsTest.iterator()));
+
+        Long saved = em.createQuery("select count(it) from Item it where it.name like 'batch%'", Long.class)
+                .getSingleResult();
+        assertThat(results, hasSize(1201));
+        assertThat(saved, equalTo(1200L));
+        assertThat(results.get(600).getId(), nullValue());
+        assertThat(results.get(600).getError(), notNullValue());
+        assertThat(results.stream().map(ItemBatchResultDto::getId).filter(Objects::nonNull).distinct().count(),
+                equalTo(1200L));
+        Item item = em.find(Item.class, results.get(1200).getId());
+        assertThat(item.getName(), equalTo("batch1199"));
+        assertThat(item.getOwnerId(), equalTo(user1.getId()));
+    }
+
     @Test
     void getItemDtoByIdTest() {
         ItemDto itemDtoTest = createItemDto("sgsrth", "llkuihui", false);
-        ItemDto itemDto = itemService.addItem(2L, itemDtoTest);
+        ItemDto itemDto = itemService.addItem(user1.getId(), itemDtoTest);
 
-        ItemDto itemDtoResult = itemService.getItemDtoById(2L, itemDto.getId());
+        ItemDto itemDtoResult = itemService.getItemDtoById(user1.getId(), itemDto.getId());
 
         TypedQuery<Item> query = em.createQuery("select i from Item i where i.id = :id", Item.class);
         Item result = query.setParameter("id", itemDtoResult.getId()).getSingleResult();
@@ -86,10 +122,10 @@ public class ItemServiceBdTest {
         User userTest = new User(null,"Mik", "test2@mail.com");
         User user = userService.addUser(userTest);
 
-        Collection<ItemDto> itemsDtoBySearch = itemService.getItemsDtoBySearch(user.getId(), "dsfg");
+        Collection<ItemDto> itemsDtoBySearch = itemService.getItemsDtoBySearch(user.getId(), "dsfg", 0, 10);
 
-        TypedQuery<Item> query = em.createQuery("select i from Item i where i.name ilike :name " +
-                "or i.description ilike :description and i.available = :available", Item.class);
+        TypedQuery<Item> query = em.createQuery("select i from Item i where (i.name ilike :name " +
+                "or i.description ilike :description) and i.available = :available", Item.class);
         List<Item> result = query.setParameter("name", "%dsfg%")
                                  .setParameter("description", "%dsfg%")
                                  .setParameter("available", true)
@@ -102,12 +138,47 @@ public class ItemServiceBdTest {
         itemDtoListTest(itemsDtoBySearch, itemsQuery);
     }
 
+    @Test
+    void getItemsDtoBySearchRankingAndPagingTest() {
+        List.of(createItemDto("drill", "Bosch", true),
+                        createItemDto("hammer", "heavy drill", true),
+                        createItemDto("drill case", "plastic", true),
+                        createItemDto("old drill", "broken", false))
+                .forEach(itemDto -> itemService.addItem(user1.getId(), itemDto));
+
+        List<ItemDto> firstPage = List.copyOf(itemService.getItemsDtoBySearch(user1.getId(), "DRILL", 0, 2));
+        List<ItemDto> secondPage = List.copyOf(itemService.getItemsDtoBySearch(user1.getId(), "DRILL", 2, 2));
+
+        assertThat(firstPage, hasSize(2));
+        assertThat(firstPage.get(0).getName(), equalTo("drill"));
+        assertThat(firstPage.get(1).getName(), equalTo("drill case"));
+        assertThat(secondPage, hasSize(1));
+        assertThat(secondPage.get(0).getName(), equalTo("hammer"));
+        assertThat(itemService.getItemsDtoBySearch(user1.getId(), "DRILL", 0, null), hasSize(3));
+    }
+
+    @Test
+    void getItemNamesByPrefixMatchesDatabaseTest() {
+        List.of(createItemDto("Пила", "Ручная", true),
+                        createItemDto("Пилка", "Для ногтей", true),
+                        createItemDto("пилка", "Маникюрная", true),
+                        createItemDto("Пилон", "Сломан", false))
+                .forEach(itemDto -> itemService.addItem(user1.getId(), itemDto));
+        em.flush();
+
+        Collection<String> fromIndex = itemService.getItemNamesByPrefix(user1.getId(), "пИ", 10);
+        List<String> fromDatabase = itemRepository.getItemNamesByPrefix("пИ", 10);
+
+        assertThat(fromIndex, contains("Пилка", "Пила"));
+        assertThat(fromDatabase, contains("Пилка", "Пила"));
+    }
+
     @Test
     void getItemsByUserIdTest() {
-        Collection<ItemDto> itemsDtoResult = itemService.getItemsDtoByUserId(1L);
+        Collection<ItemDto> itemsDtoResult = itemService.getItemsDtoByUserId(user1.getId());
 
         TypedQuery<Item> query = em.createQuery("select it from Item it where it.ownerId = :id", Item.class);
-        List<Item> itemsList = query.setParameter("id", 1L).getResultList();
+        List<Item> itemsList = query.setParameter("id", user1.getId()).getResultList();
 
         List<ItemDto> itemsQuery = itemsList.stream().map(MappingItem::mapToItemDto).toList();
 
@@ -116,6 +187,168 @@ public class ItemServiceBdTest {
         itemDtoListTest(itemsDtoResult, itemsQuery);
     }
 
+    @Test
+    void getItemsByUserIdWithBookingsTest() {
+        User owner = userService.addUser(new User(null, "Mik", "test2@mail.com"));
+        ItemDto itemDto = itemService.addItem(owner.getId(), createItemDto("sgsrth", "llkuihui", true));
+        Item item = em.find(Item.class, itemDto.getId());
+        LocalDateTime now = LocalDateTime.now();
+
+        createBooking(item, now.minusDays(5), 1);
+        Booking lastBooking = createBooking(item, now.minusDays(2), 1);
+        createBooking(item, now.minusDays(1), 2);
+        Booking nextBooking = createBooking(item, now.plusDays(1), 0);
+        createBooking(item, now.plusDays(3), 1);
+        itemRepository.updateBookingPointers(List.of(item.getId()), now);
+
+        Collection<ItemDto> itemsDtoResult = itemService.getItemsDtoByUserId(owner.getId());
+
+        assertThat(itemsDtoResult, hasSize(1));
+        ItemDto itemDtoResult = itemsDtoResult.iterator().next();
+        assertThat(itemDtoResult.getLastBooking().getId(), equalTo(lastBooking.getId()));
+        assertThat(itemDtoResult.getNextBooking().getId(), equalTo(nextBooking.getId()));
+    }
+
+    @Test
+    void getItemsByUserIdAfterSweepTest() {
+        User owner = userService.addUser(new User(null, "Mik", "test2@mail.com"));
+        ItemDto itemDto = itemService.addItem(owner.getId(), createItemDto("sgsrth", "llkuihui", true));
+        Item item = em.find(Item.class, itemDto.getId());
+        LocalDateTime now = LocalDateTime.now();
+
+        Booking lastBooking = createBooking(item, now.minusDays(2), 1);
+        Booking startedBooking = createBooking(item, now.minusHours(1), 1);
+        Booking nextBooking = createBooking(item, now.plusDays(1), 1);
+        itemRepository.updateBookingPointers(List.of(item.getId()), now.minusDays(1));
+
+        ItemDto beforeSweep = itemService.getItemsDtoByUserId(owner.getId()).iterator().next();
+        int swept = bookingPointerSweeper.sweep();
+        ItemDto afterSweep = itemService.getItemsDtoByUserId(owner.getId()).iterator().next();
+
+        assertThat(swept, greaterThanOrEqualTo(1));
+        assertThat(beforeSweep.getLastBooking().getId(), equalTo(lastBooking.getId()));
+        assertThat(beforeSweep.getNextBooking().getId(), equalTo(startedBooking.getId()));
+        assertThat(afterSweep.getLastBooking().getId(), equalTo(startedBooking.getId()));
+        assertThat(afterSweep.getNextBooking().getId(), equalTo(nextBooking.getId()));
+    }
+
+    @Test
+    void getItemDtoByIdAfterNextBookingStartsTest() throws InterruptedException {
+        User owner = userService.addUser(new User(null, "Mik", "test2@mail.com"));
+        ItemDto itemDto = itemService.addItem(owner.getId(), createItemDto("sgsrth", "llkuihui", true));
+        Item item = em.find(Item.class, itemDto.getId());
+        LocalDateTime now = LocalDateTime.now();
+
+        Booking lastBooking = createBooking(item, now.minusDays(2), 1);
+        Booking startingBooking = createBooking(item, now.plusSeconds(1), 1);
+        itemRepository.updateBookingPointers(List.of(item.getId()), now);
+
+        ItemDto beforeStart = itemService.getItemDtoById(owner.getId(), item.getId());
+        Thread.sleep(Duration.between(LocalDateTime.now(), startingBooking.getStartTime()).toMillis() + 100);
+        ItemDto afterStart = itemService.getItemDtoById(owner.getId(), item.getId());
+
+        assertThat(beforeStart.getLastBooking().getId(), equalTo(lastBooking.getId()));
+        assertThat(beforeStart.getNextBooking().getId(), equalTo(startingBooking.getId()));
+        assertThat(afterStart.getLastBooking().getId(), equalTo(startingBooking.getId()));
+        assertThat(afterStart.getNextBooking(), nullValue());
+    }
+
+    @Test
+    void getItemAvailabilityTest() {
+        User owner = userService.addUser(new User(null, "Mik", "test2@mail.com"));
+        ItemDto itemDto = itemService.addItem(owner.getId(), createItemDto("sgsrth", "llkuihui", true));
+        Item item = em.find(Item.class, itemDto.getId());
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        createBooking(item, from.plusHours(2), 1);
+        createBooking(item, from.plusHours(8), 0);
+        createBooking(item, from.plusHours(30), 2);
+        em.flush();
+
+        List<ItemAvailabilityDto> windows = List.copyOf(
+                itemService.getItemAvailability(user1.getId(), item.getId(), from, from.plusDays(2)));
+
+        assertThat(windows, hasSize(2));
+        assertThat(windows.get(0).getStart(), equalTo(from));
+        assertThat(windows.get(0).getEnd(), equalTo(from.plusHours(2)));
+        assertThat(windows.get(1).getStart(), equalTo(from.plusHours(20)));
+        assertThat(windows.get(1).getEnd(), equalTo(from.plusDays(2)));
+    }
+
+    @Test
+    void getItemsByUserIdWithCommentsTest() {
+        List<Item> items = em.createQuery("select it from Item it where it.ownerId = :id order by it.id", Item.class)
+                .setParameter("id", user1.getId())
+                .getResultList();
+        LocalDateTime now = LocalDateTime.now();
+        em.persist(new Comment(null, "first", "Mike", now, items.get(0).getId()));
+        em.persist(new Comment(null, "second", "Mike", now, items.get(1).getId()));
+        em.persist(new Comment(null, "third", "Mike", now, items.get(1).getId()));
+        em.flush();
+
+        List<ItemDto> itemsDtoResult = List.copyOf(itemService.getItemsDtoByUserId(user1.getId()));
+
+        assertThat(itemsDtoResult.get(0).getComments(), contains(hasProperty("text", equalTo("first"))));
+        assertThat(itemsDtoResult.get(1).getComments(), contains(
+                hasProperty("text", equalTo("second")),
+                hasProperty("text", equalTo("third"))));
+    }
+
+    @Test
+    void setCommentInItemTest() {
+        List<Item> items = em.createQuery("select it from Item it where it.ownerId = :id order by it.id", Item.class)
+                .setParameter("id", user1.getId())
+                .getResultList();
+        LocalDateTime now = LocalDateTime.now();
+        createBooking(items.get(0), now.minusDays(2), 1);
+        createBooking(items.get(1), now.minusDays(2), 2);
+        createBooking(items.get(1), now.plusDays(2), 1);
+        em.flush();
+
+        CommentDto comment = itemService.setCommentInItem(user1.getId(), items.get(0).getId(),
+                CommentDto.builder().text("good").build());
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> itemService.setCommentInItem(user1.getId(), items.get(1).getId(),
+                        CommentDto.builder().text("bad").build()));
+
+        assertThat(comment.getId(), notNullValue());
+        assertThat(comment.getText(), equalTo("good"));
+        assertThat(exception.getMessage(), equalTo("Пользоваетель не может оставить комментарий"));
+    }
+
+    @Test
+    void exportItemsByUserIdTest() {
+        List<ItemDto> itemsTest = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            itemsTest.add(createItemDto("export" + i, "description" + i, true));
+        }
+        itemService.addItems(user1.getId(), itemsTest.iterator());
+        Long itemId = itemService.getItemsDtoByUserId(user1.getId()).iterator().next().getId();
+        em.persist(new Comment(null, "comment", "Mike", LocalDateTime.now(), itemId));
+        em.flush();
+
+        List<ItemDto> exported = new ArrayList<>();
+        itemService.exportItemsDtoByUserId(user1.getId()).accept(exported::add);
+
+        assertThat(exported, hasSize(602));
+        assertThat(exported.stream().map(ItemDto::getId).distinct().count(), equalTo(602L));
+        assertThat(exported.get(0).getId(), equalTo(itemId));
+        assertThat(exported.get(0).getComments(), contains(hasProperty("text", equalTo("comment"))));
+    }
+
+    private Booking createBooking(Item item, LocalDateTime start, Integer status) {
+        Booking booking = Booking.builder()
+                .item(item)
+                .bookerId(user1.getId())
+                .startTime(start)
+                .endTime(start.plusHours(12))
+                .status(status)
+                .ownerId(item.getOwnerId())
+                .build();
+        em.persist(booking);
+        return booking;
+    }
+
     private ItemDto createItemDto(String name, String description, Boolean available) {
         return ItemDto.builder()
                 .name(name)
@@ -9,24 +9,35 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.item.ItemController;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.validation.exeption.BadRequestException;
 import ru.practicum.shareit.validation.exeption.NotFoundException;
+import ru.practicum.shareit.validation.exeption.PreconditionFailedException;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ItemController.class)
@@ -121,7 +132,7 @@ public class ItemControllerWithContextTest {
     @Test
     void updateItem() throws Exception {
         ItemDto itemDtoTest = ItemDto.builder().id(1L).name("Arsen").description("test2").available(false).requestId(2L).build();
-        when(itemService.updateItemDto(anyLong(), anyLong(), any())).thenReturn(itemDtoTest);
+        when(itemService.updateItemDto(anyLong(), anyLong(), any(), any())).thenReturn(itemDtoTest);
 
         mockMvc.perform(patch("/items/1")
                         .content(mapper.writeValueAsString(itemDtoTest))
@@ -136,6 +147,48 @@ public class ItemControllerWithContextTest {
                 .andExpect(jsonPath("$.requestId", is(itemDtoTest.getRequestId()), Long.class));
     }
 
+    @Test
+    void updateItemWithIfMatch() throws Exception {
+        ItemDto itemDtoTest = ItemDto.builder().id(1L).name("Arsen").description("test2").available(false).version(4L).build();
+        when(itemService.updateItemDto(anyLong(), anyLong(), any(), eq(3L))).thenReturn(itemDtoTest);
+
+        mockMvc.perform(patch("/items/1")
+                        .content(mapper.writeValueAsString(itemDtoTest))
+                        .header("X-Sharer-User-Id", 1)
+                        .header("If-Match", "\"3\"")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.version").doesNotExist());
+    }
+
+    @Test
+    void updateItemPreconditionFailed() throws Exception {
+        when(itemService.updateItemDto(anyLong(), anyLong(), any(), any()))
+                .thenThrow(new PreconditionFailedException("Вещь с ID 1 была изменена другим запросом"));
+
+        mockMvc.perform(patch("/items/1")
+                        .content(mapper.writeValueAsString(itemDto1))
+                        .header("X-Sharer-User-Id", 1)
+                        .header("If-Match", "\"3\"")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.error", is("Вещь с ID 1 была изменена другим запросом")));
+    }
+
+    @Test
+    void updateItemInvalidIfMatch() throws Exception {
+        mockMvc.perform(patch("/items/1")
+                        .content(mapper.writeValueAsString(itemDto1))
+                        .header("X-Sharer-User-Id", 1)
+                        .header("If-Match", "abc")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getItemById() throws Exception {
         itemDto1.setComments(comments);
@@ -166,10 +219,37 @@ public class ItemControllerWithContextTest {
 
     @Test
     void getItemsBySearch() throws Exception {
-        when(itemService.getItemsDtoBySearch(anyLong(), anyString())).thenReturn(items);
+        when(itemService.getItemsDtoBySearch(anyLong(), anyString(), anyInt(), isNull())).thenReturn(items);
         mockMvcItemDtoListTest("/items/search?text=mik");
     }
 
+    @Test
+    void getItemsBySearchWithSize() throws Exception {
+        when(itemService.getItemsDtoBySearch(anyLong(), anyString(), anyInt(), eq(2))).thenReturn(items);
+        mockMvcItemDtoListTest("/items/search?text=mik&from=0&size=2");
+    }
+
+    @Test
+    void getItemsBySearchInvalidSize() throws Exception {
+        mockMvc.perform(get("/items/search?text=mik&size=0")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getItemNamesByPrefix() throws Exception {
+        when(itemService.getItemNamesByPrefix(anyLong(), anyString(), anyInt())).thenReturn(List.of("Mik", "Mikado"));
+
+        mockMvc.perform(get("/items/suggest?prefix=mi&size=5")
+                        .header("X-Sharer-User-Id", 1L)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(jsonPath("$[0]", is("Mik")))
+                .andExpect(jsonPath("$[1]", is("Mikado")));
+    }
+
     @Test
     void findItemNotFoundException() throws Exception {
         when(itemService.getItemDtoById(anyLong(), any())).thenThrow(new NotFoundException("Вещь с ID 1 не найдена"));
@@ -185,7 +265,7 @@ public class ItemControllerWithContextTest {
 
     @Test
     void updateItemNotFoundException() throws Exception {
-        when(itemService.updateItemDto(anyLong(), anyLong(), any())).thenThrow(new NotFoundException("Вещь не принадлежит пользователю с ID 2"));
+        when(itemService.updateItemDto(anyLong(), anyLong(), any(), any())).thenThrow(new NotFoundException("Вещь не принадлежит пользователю с ID 2"));
 
         mockMvc.perform(patch("/items/1")
                         .content(mapper.writeValueAsString(itemDto1))
@@ -222,4 +302,112 @@ public class ItemControllerWithContextTest {
                 .andExpect(jsonPath("$[*].available", containsInAnyOrder(itemDto1.getAvailable(), itemDto2.getAvailable())))
                 .andExpect(jsonPath("$[*].requestId", containsInAnyOrder(2, 9)));
     }
+
+    @Test
+    void createItemsFromNdjsonTest() throws Exception {
+        when(itemService.addItems(anyLong(), any())).thenAnswer(invocation -> readBatch(invocation.getArgument(1)));
+        String body = "{\"name\":\"Mik\",\"description\":\"test1\",\"available\":true}\n" +
+                "{\"name\":\"Mark\",\"description\":\"test2\",\"available\":\"maybe\"}\n" +
+                "{\"name\":\"Max\",\"description\":\"test3\",\"available\":false}\n";
+
+        mockMvc.perform(post("/items/batch")
+                        .content(body)
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType("application/x-ndjson"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(0, null, 2)))
+                .andExpect(jsonPath("$[1].error", is("Некорректные данные вещи")));
+    }
+
+    @Test
+    void createItemsFromArrayTest() throws Exception {
+        when(itemService.addItems(anyLong(), any())).thenAnswer(invocation -> readBatch(invocation.getArgument(1)));
+
+        mockMvc.perform(post("/items/batch")
+                        .content(mapper.writeValueAsString(items))
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(0, 1)));
+    }
+
+    @Test
+    void createItemsWithBrokenBodyTest() throws Exception {
+        when(itemService.addItems(anyLong(), any())).thenAnswer(invocation -> readBatch(invocation.getArgument(1)));
+
+        mockMvc.perform(post("/items/batch")
+                        .content("[{\"name\":\"Mik\",")
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportItemsTest() throws Exception {
+        when(itemService.exportItemsDtoByUserId(anyLong())).thenReturn(consumer -> items.forEach(consumer));
+
+        MvcResult result = mockMvc.perform(get("/items/export")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        String[] lines = body.split("\n");
+        assertThat(lines.length, is(2));
+        assertThat(mapper.readValue(lines[0], ItemDto.class).getName(), is("Mik"));
+        assertThat(mapper.readValue(lines[1], ItemDto.class).getName(), is("Mark"));
+    }
+
+    @Test
+    void exportItemsUserNotFoundTest() throws Exception {
+        when(itemService.exportItemsDtoByUserId(anyLong()))
+                .thenThrow(new NotFoundException("Пользователь с ID 1 не зарегистрирован"));
+
+        mockMvc.perform(get("/items/export")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getItemAvailabilityTest() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        when(itemService.getItemAvailability(1L, 1L, from, from.plusDays(1))).thenReturn(List.of(
+                new ItemAvailabilityDto(from, from.plusHours(2)),
+                new ItemAvailabilityDto(from.plusHours(6), from.plusDays(1))));
+
+        mockMvc.perform(get("/items/1/availability?from=2030-01-01T00:00:00&to=2030-01-02T00:00:00")
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(jsonPath("$[0].start", is("2030-01-01T00:00:00")))
+                .andExpect(jsonPath("$[0].end", is("2030-01-01T02:00:00")))
+                .andExpect(jsonPath("$[1].start", is("2030-01-01T06:00:00")));
+    }
+
+    @Test
+    void getItemAvailabilityBadPeriodTest() throws Exception {
+        when(itemService.getItemAvailability(anyLong(), anyLong(), any(), any()))
+                .thenThrow(new BadRequestException("Начало периода должно быть раньше его окончания"));
+
+        mockMvc.perform(get("/items/1/availability?from=2030-01-02T00:00:00&to=2030-01-01T00:00:00")
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Начало периода должно быть раньше его окончания")));
+    }
+
+    private static List<ItemBatchResultDto> readBatch(Iterator<ItemDto> itemsDto) {
+        List<ItemBatchResultDto> results = new ArrayList<>();
+        for (int row = 0; itemsDto.hasNext(); row++) {
+            ItemDto itemDto = itemsDto.next();
+            results.add(itemDto == null
+                    ? ItemBatchResultDto.builder().row(row).error("Некорректные данные вещи").build()
+                    : ItemBatchResultDto.builder().row(row).id((long) row).build());
+        }
+        return results;
+    }
 }
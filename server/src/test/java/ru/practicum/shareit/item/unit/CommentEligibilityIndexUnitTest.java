@@ -0,0 +1,86 @@
+package ru.practicum.shareit.item.unit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.data.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.CommentEligibilityIndex;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CommentEligibilityIndexUnitTest {
+    @Mock
+    private BookingRepository bookingRepo;
+
+    private CommentEligibilityIndex eligibilityIndex;
+    private final Item item = new Item(1L, "Дрель", "Ударная", 1L, true, null, List.of(), 0L);
+
+    @BeforeEach
+    void setUp() {
+        eligibilityIndex = new CommentEligibilityIndex(bookingRepo, 100, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void canCommentCachesEligibleBookerTest() {
+        when(bookingRepo.existsCommentableBooking(eq(2L), eq(1L), any())).thenReturn(true);
+
+        assertThat(eligibilityIndex.canComment(1L, 2L), is(true));
+        assertThat(eligibilityIndex.canComment(1L, 2L), is(true));
+
+        verify(bookingRepo, times(1)).existsCommentableBooking(eq(2L), eq(1L), any());
+    }
+
+    @Test
+    void canCommentDoesNotCacheIneligibleBookerTest() {
+        when(bookingRepo.existsCommentableBooking(eq(3L), eq(1L), any())).thenReturn(false, true);
+
+        assertThat(eligibilityIndex.canComment(1L, 3L), is(false));
+        assertThat(eligibilityIndex.canComment(1L, 3L), is(true));
+    }
+
+    @Test
+    void invalidateItemForcesRecheckTest() {
+        when(bookingRepo.existsCommentableBooking(eq(2L), eq(1L), any())).thenReturn(true, false);
+
+        assertThat(eligibilityIndex.canComment(1L, 2L), is(true));
+        eligibilityIndex.invalidate(1L);
+
+        assertThat(eligibilityIndex.canComment(1L, 2L), is(false));
+    }
+
+    @Test
+    void addStartedBookingTest() {
+        LocalDateTime now = LocalDateTime.now();
+        eligibilityIndex.add(new Booking(1L, item, 4L, now.minusDays(1), now.plusDays(1), 1, 1L, 0L));
+        eligibilityIndex.add(new Booking(2L, item, 2L, now.minusDays(2), now.minusDays(1), 1, 1L, 0L));
+
+        assertThat(eligibilityIndex.canComment(1L, 2L), is(true));
+        assertThat(eligibilityIndex.canComment(1L, 4L), is(true));
+        verify(bookingRepo, never()).existsCommentableBooking(any(), any(), any());
+    }
+
+    @Test
+    void addFutureBookingIsIgnoredTest() {
+        LocalDateTime now = LocalDateTime.now();
+        when(bookingRepo.existsCommentableBooking(eq(2L), eq(1L), any())).thenReturn(false);
+        eligibilityIndex.add(new Booking(1L, item, 2L, now.plusDays(1), now.plusDays(2), 1, 1L, 0L));
+
+        assertThat(eligibilityIndex.canComment(1L, 2L), is(false));
+    }
+}
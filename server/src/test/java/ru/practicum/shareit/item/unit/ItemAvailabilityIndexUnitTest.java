@@ -0,0 +1,119 @@
+package ru.practicum.shareit.item.unit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.data.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemAvailabilityIndexUnitTest {
+    @Mock
+    private BookingRepository bookingRepo;
+
+    private ItemAvailabilityIndex availabilityIndex;
+    private final Item item = new Item(1L, "Дрель", "Ударная", 1L, true, null, List.of(), 0L);
+    private final LocalDateTime day = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @BeforeEach
+    void setUp() {
+        availabilityIndex = new ItemAvailabilityIndex(bookingRepo, 100, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void getFreeWindowsBetweenBookingsTest() {
+        when(bookingRepo.findAllBookingByItemIdAndStatusIn(1L, List.of(0, 1))).thenReturn(List.of(
+                booking(1L, day.plusHours(10), day.plusHours(12)),
+                booking(2L, day.plusHours(2), day.plusHours(4)),
+                booking(3L, day.plusHours(3), day.plusHours(6)),
+                booking(4L, day.plusHours(20), day.plusHours(30))));
+
+        List<ItemAvailabilityDto> windows = availabilityIndex.getFreeWindows(1L, day, day.plusHours(24));
+
+        assertThat(render(windows), equalTo(List.of("0-2", "6-10", "12-20")));
+    }
+
+    @Test
+    void getFreeWindowsWithoutBookingsTest() {
+        when(bookingRepo.findAllBookingByItemIdAndStatusIn(1L, List.of(0, 1))).thenReturn(List.of());
+
+        assertThat(render(availabilityIndex.getFreeWindows(1L, day, day.plusHours(5))), equalTo(List.of("0-5")));
+    }
+
+    @Test
+    void getFreeWindowsWhenPeriodIsBusyTest() {
+        when(bookingRepo.findAllBookingByItemIdAndStatusIn(1L, List.of(0, 1))).thenReturn(List.of(
+                booking(1L, day.minusHours(1), day.plusHours(48))));
+
+        assertThat(availabilityIndex.getFreeWindows(1L, day, day.plusHours(24)).isEmpty(), is(true));
+    }
+
+    @Test
+    void addBookingToLoadedTreeTest() {
+        when(bookingRepo.findAllBookingByItemIdAndStatusIn(1L, List.of(0, 1))).thenReturn(new ArrayList<>());
+        availabilityIndex.getFreeWindows(1L, day, day.plusHours(1));
+
+        availabilityIndex.add(booking(5L, day.plusHours(1), day.plusHours(2)));
+
+        assertThat(render(availabilityIndex.getFreeWindows(1L, day, day.plusHours(3))), equalTo(List.of("0-1", "2-3")));
+        verify(bookingRepo, times(1)).findAllBookingByItemIdAndStatusIn(1L, List.of(0, 1));
+    }
+
+    @Test
+    void invalidateReloadsTreeTest() {
+        when(bookingRepo.findAllBookingByItemIdAndStatusIn(1L, List.of(0, 1)))
+                .thenReturn(List.of(booking(1L, day.plusHours(1), day.plusHours(2))))
+                .thenReturn(List.of());
+        availabilityIndex.getFreeWindows(1L, day, day.plusHours(3));
+
+        availabilityIndex.invalidate(1L);
+
+        assertThat(render(availabilityIndex.getFreeWindows(1L, day, day.plusHours(3))), equalTo(List.of("0-3")));
+        verify(bookingRepo, times(2)).findAllBookingByItemIdAndStatusIn(1L, List.of(0, 1));
+    }
+
+    @Test
+    void getFreeWindowsFromManyBookingsTest() {
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 999; i >= 0; i--) {
+            bookings.add(booking((long) i, day.plusHours(2L * i), day.plusHours(2L * i + 1)));
+        }
+        when(bookingRepo.findAllBookingByItemIdAndStatusIn(1L, List.of(0, 1))).thenReturn(bookings);
+
+        List<ItemAvailabilityDto> windows = availabilityIndex.getFreeWindows(1L, day.plusHours(100), day.plusHours(106));
+
+        assertThat(render(windows), equalTo(List.of("101-102", "103-104", "105-106")));
+    }
+
+    private Booking booking(Long id, LocalDateTime start, LocalDateTime end) {
+        return new Booking(id, item, 2L, start, end, 0, item.getOwnerId(), 0L);
+    }
+
+    private List<String> render(List<ItemAvailabilityDto> windows) {
+        return windows.stream()
+                .map(window -> hours(window.getStart()) + "-" + hours(window.getEnd()))
+                .toList();
+    }
+
+    private long hours(LocalDateTime time) {
+        return Duration.between(day, time).toHours();
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.item.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.data.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemOwnerIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemOwnerIndexUnitTest {
+    @Mock
+    private ItemRepository itemRepo;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private ItemOwnerIndex ownerIndex;
+
+    @BeforeEach
+    void setUp() {
+        ownerIndex = new ItemOwnerIndex(itemRepo, jdbcTemplate);
+    }
+
+    @Test
+    void getOwnerIdLoadsMissingItemOnceTest() {
+        when(itemRepo.findOwnerIdById(5L)).thenReturn(Optional.of(7L));
+
+        assertThat(ownerIndex.getOwnerId(5L), equalTo(7L));
+        assertThat(ownerIndex.getOwnerId(5L), equalTo(7L));
+
+        verify(itemRepo, times(1)).findOwnerIdById(5L);
+    }
+
+    @Test
+    void getOwnerIdForUnknownItemTest() {
+        when(itemRepo.findOwnerIdById(5L)).thenReturn(Optional.empty());
+
+        assertThat(ownerIndex.getOwnerId(5L), equalTo(ItemOwnerIndex.NO_OWNER));
+    }
+
+    @Test
+    void addItemsTest() {
+        List<Item> items = new ArrayList<>();
+        for (long id = 1; id <= 5000; id++) {
+            items.add(new Item(id, "item" + id, null, id % 10, true, null, List.of(), 0L));
+        }
+
+        ownerIndex.add(items);
+
+        assertThat(ownerIndex.getOwnerId(1L), equalTo(1L));
+        assertThat(ownerIndex.getOwnerId(2048L), equalTo(8L));
+        assertThat(ownerIndex.getOwnerId(5000L), equalTo(0L));
+        verify(itemRepo, never()).findOwnerIdById(anyLong());
+    }
+}
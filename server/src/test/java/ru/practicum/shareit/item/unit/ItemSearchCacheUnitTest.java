@@ -0,0 +1,110 @@
+package ru.practicum.shareit.item.unit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class ItemSearchCacheUnitTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ItemSearchCache searchCache;
+    private List<String> searches;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        searchCache = new ItemSearchCache(1000, meterRegistry);
+        searches = new ArrayList<>();
+    }
+
+    @Test
+    void getCachedByNormalizedTextTest() {
+        assertThat(search(" Дрель", 1L, 2L), equalTo(new long[]{1L, 2L}));
+        assertThat(search("дрель ", 3L), equalTo(new long[]{1L, 2L}));
+
+        assertThat(searches, equalTo(List.of("дрель")));
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "itemSearch").tag("result", "hit")
+                .functionCounter().count(), equalTo(1.0));
+    }
+
+    @Test
+    void invalidateByNewItemTextTest() {
+        search("дрель", 1L);
+        search("пила", 2L);
+
+        searchCache.invalidate(new Item(3L, "Дрель Bosch", null, 1L, true, null, List.of(), 0L));
+        search("дрель", 1L, 3L);
+        search("пила", 2L);
+
+        assertThat(searches, equalTo(List.of("дрель", "пила", "дрель")));
+    }
+
+    @Test
+    void invalidateByPreviouslyMatchedItemTest() {
+        search("дрель", 1L, 2L);
+        search("пила", 3L);
+
+        searchCache.invalidate(new Item(2L, "Перфоратор", null, 1L, true, null, List.of(), 0L));
+        search("дрель", 1L);
+        search("пила", 3L);
+
+        assertThat(searches, equalTo(List.of("дрель", "пила", "дрель")));
+    }
+
+    @Test
+    void invalidateBatchOfItemsTest() {
+        search("дрель", 1L);
+        search("пила", 2L);
+        search("молоток", 3L);
+
+        searchCache.invalidate(List.of(
+                new Item(4L, "Циркулярная пила", null, 1L, true, null, List.of(), 0L),
+                new Item(5L, "Шуруповерт", "Заменяет дрель", 1L, true, null, List.of(), 0L)));
+        search("дрель", 1L, 5L);
+        search("пила", 2L, 4L);
+        search("молоток", 3L);
+
+        assertThat(searches, equalTo(List.of("дрель", "пила", "молоток", "дрель", "пила")));
+    }
+
+    @Test
+    void invalidateRepeatedlyByPreviouslyMatchedItemTest() {
+        search("дрель", 1L);
+        searchCache.invalidate(new Item(1L, "Перфоратор", null, 1L, true, null, List.of(), 0L));
+        search("дрель", 1L);
+        searchCache.invalidate(new Item(1L, "Лобзик", null, 1L, true, null, List.of(), 0L));
+        search("дрель", 1L);
+
+        assertThat(searches, equalTo(List.of("дрель", "дрель", "дрель")));
+    }
+
+    @Test
+    void notCachedFallbackTest() {
+        searchCache.get("др", text -> {
+            searches.add(text);
+            return Optional.empty();
+        });
+        searchCache.get("др", text -> {
+            searches.add(text);
+            return Optional.empty();
+        });
+
+        assertThat(searches, equalTo(List.of("др", "др")));
+    }
+
+    private long[] search(String text, long... ids) {
+        return searchCache.get(text, key -> {
+            searches.add(key);
+            return Optional.of(ids);
+        }).orElseThrow();
+    }
+}
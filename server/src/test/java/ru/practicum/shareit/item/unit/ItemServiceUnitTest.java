@@ -1,36 +1,58 @@
 package ru.practicum.shareit.item.unit;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.data.BookingRepository;
 import ru.practicum.shareit.booking.data.CommentRepository;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.data.ItemBatchRepository;
 import ru.practicum.shareit.item.data.ItemRepository;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemOwnerIndex;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.item.service.ItemViewCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.validation.exeption.BadRequestException;
 import ru.practicum.shareit.validation.exeption.NotFoundException;
+import ru.practicum.shareit.validation.exeption.PreconditionFailedException;
 import ru.practicum.shareit.validation.item.ValidationItem;
 import ru.practicum.shareit.validation.user.ValidationUser;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,9 +64,19 @@ public class ItemServiceUnitTest {
     @Mock
     private ItemRepository itemRepo;
     @Mock
+    private ItemBatchRepository itemBatchRepo;
+    @Mock
     private BookingRepository bookingRepo;
     @Mock
     private CommentRepository commentRepo;
+    @Mock
+    private ItemSearchEngine searchEngine;
+    @Mock
+    private ItemOwnerIndex itemOwnerIndex;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private TransactionTemplate transactionTemplate;
 
     private ItemServiceImpl itemService;
     private Item item1;
@@ -63,11 +95,19 @@ public class ItemServiceUnitTest {
                 validUser,
                 validItem,
                 itemRepo,
+                itemBatchRepo,
                 bookingRepo,
-                commentRepo
+                commentRepo,
+                searchEngine,
+                new ItemSearchCache(1000, new SimpleMeterRegistry()),
+                new ItemViewCache(100, 300, new SimpleMeterRegistry()),
+                new ItemAvailabilityIndex(bookingRepo, 100, new SimpleMeterRegistry()),
+                itemOwnerIndex,
+                entityManager,
+                transactionTemplate
         );
-        item1 = new Item(1L, "Mik", "test1", 1L, true, 2L, List.of());
-        item2 = new Item(2L, "Mark", "test2", 1L, false, 9L, List.of());
+        item1 = new Item(1L, "Mik", "test1", 1L, true, 2L, List.of(), 0L);
+        item2 = new Item(2L, "Mark", "test2", 1L, false, 9L, List.of(), 0L);
         itemDto1 = ItemDto.builder()
                 .id(1L)
                 .name("Mik")
@@ -99,6 +139,55 @@ public class ItemServiceUnitTest {
         testItem(itemDto, itemDto1);
     }
 
+    @Test
+    void createItemsTest() {
+        doAnswer(invocation -> {
+            List<Item> batch = invocation.getArgument(0);
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).setId(10L + i);
+            }
+            return null;
+        }).when(itemBatchRepo).saveAll(any());
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        ItemDto tooLong = itemDto1.toBuilder().description("d".repeat(101)).build();
+        List<ItemDto> itemsTest = new ArrayList<>(List.of(itemDto1, ItemDto.builder().name("Mark").build(), itemDto1,
+                tooLong));
+        itemsTest.add(null);
+
+        List<ItemBatchResultDto> results = List.copyOf(itemService.addItems(1L, itemsTest.iterator()));
+
+        assertThat(results, hasSize(5));
+        assertThat(results.get(0).getId(), equalTo(10L));
+        assertThat(results.get(1).getError(), equalTo("Некорректные данные вещи"));
+        assertThat(results.get(2).getId(), equalTo(11L));
+        assertThat(results.get(3).getError(), equalTo("Некорректные данные вещи"));
+        assertThat(results.get(4).getError(), equalTo("Некорректные данные вещи"));
+        verify(validUser, times(1)).validationUserById(1L);
+        verify(searchEngine, times(2)).index(any());
+    }
+
+    @Test
+    void createItemsFailedBatchIsNotIndexedTest() {
+        doAnswer(invocation -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+                throw new DataIntegrityViolationException("Нарушено ограничение");
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        List<ItemBatchResultDto> results = List.copyOf(itemService.addItems(1L, List.of(itemDto1).iterator()));
+
+        assertThat(results.getFirst().getId(), nullValue());
+        assertThat(results.getFirst().getError(), equalTo("Не удалось сохранить вещь"));
+        verify(searchEngine, never()).index(any());
+    }
+
     @Test
     void createItemValidUserNotFoundExceptionTest() {
         when(validUser.validationUserById(anyLong()))
@@ -114,16 +203,11 @@ public class ItemServiceUnitTest {
     @Test
     void createCommentTest() {
         CommentDto commentTest = CommentDto.builder().text("test1").build();
-        Booking booking1 = new Booking(1L, item1, 2L, LocalDateTime.now(), LocalDateTime.now().plusDays(1), 0);
-        Booking booking2 = new Booking(2L, item1, 2L, LocalDateTime.now(), LocalDateTime.now().plusDays(1), 0);
-        bookings = List.of(booking1, booking2);
         User user = new User(1L, "John", "test1@mail.com");
         Comment comment = new Comment(1L, "test1", "Mike", date, 1L);
 
         when(validUser.validationUserById(anyLong())).thenReturn(user);
         when(validItem.validationItemById(anyLong())).thenReturn(item1);
-        when(bookingRepo.findAllBookingByBookerIdAndItemOrderByStartTimeDesc(anyLong(), any())).thenReturn(bookings);
-        when(validItem.validationCommentByBookerId(any())).thenReturn(booking1);
         when(commentRepo.save(any())).thenReturn(comment);
 
         CommentDto commentDto = itemService.setCommentInItem(2L,1L, commentTest);
@@ -163,12 +247,12 @@ public class ItemServiceUnitTest {
 
     @Test
     void createCommentByBookingValidBadRequestExceptionTest() {
-        when(validItem.validationCommentByBookerId(any()))
-                .thenThrow(new BadRequestException("Пользоваетель не может оставить комментарий"));
+        doThrow(new BadRequestException("Пользоваетель не может оставить комментарий"))
+                .when(validItem).validationCommentByBookerId(anyLong(), anyLong());
 
         final BadRequestException exception = Assertions.assertThrows(
                 BadRequestException.class,
-                () -> itemService.setCommentInItem(2L, 1L, any())
+                () -> itemService.setCommentInItem(2L, 1L, CommentDto.builder().text("test1").build())
         );
         Assertions.assertEquals("Пользоваетель не может оставить комментарий", exception.getMessage());
     }
@@ -182,9 +266,9 @@ public class ItemServiceUnitTest {
         item1.setDescription(itemTest.getDescription());
         item1.setAvailable(itemTest.getAvailable());
 
-        when(itemRepo.save(any())).thenReturn(item1);
+        when(itemRepo.saveAndFlush(any())).thenReturn(item1);
 
-        ItemDto itemDto = itemService.updateItemDto(1L, 1L, itemTest);
+        ItemDto itemDto = itemService.updateItemDto(1L, 1L, itemTest, null);
 
         assertThat(itemDto.getId(), equalTo(1L));
         assertThat(itemDto.getName(), equalTo(itemTest.getName()));
@@ -192,6 +276,19 @@ public class ItemServiceUnitTest {
         assertThat(itemDto.getAvailable(), equalTo(itemTest.getAvailable()));
     }
 
+    @Test
+    void updateItemPreconditionFailedExceptionTest() {
+        item1.setVersion(3L);
+        when(validItem.validationItemByUser(anyLong(), anyLong())).thenReturn(item1);
+
+        final PreconditionFailedException exception = Assertions.assertThrows(
+                PreconditionFailedException.class,
+                () -> itemService.updateItemDto(1L, 1L, ItemDto.builder().name("Max").build(), 2L)
+        );
+        Assertions.assertEquals("Вещь с ID 1 была изменена другим запросом", exception.getMessage());
+        verify(itemRepo, never()).saveAndFlush(any());
+    }
+
     @Test
     void updateItemValidNotFoundExceptionTest() {
         when(validItem.validationItemByUser(anyLong(), anyLong()))
@@ -199,7 +296,7 @@ public class ItemServiceUnitTest {
 
         final NotFoundException exception = Assertions.assertThrows(
                 NotFoundException.class,
-                () -> itemService.updateItemDto(2L, 1L, any())
+                () -> itemService.updateItemDto(2L, 1L, null, null)
         );
         Assertions.assertEquals("Вещь не принадлежит пользователю с ID 2", exception.getMessage());
     }
@@ -212,7 +309,7 @@ public class ItemServiceUnitTest {
 
         final NotFoundException exception = Assertions.assertThrows(
                 NotFoundException.class,
-                () -> itemService.updateItemDto(2L, anyLong(), itemTest)
+                () -> itemService.updateItemDto(2L, anyLong(), itemTest, null)
         );
         Assertions.assertEquals("Пользователь с ID 2 не зарегистрирован", exception.getMessage());
     }
@@ -233,6 +330,46 @@ public class ItemServiceUnitTest {
         );
     }
 
+    @Test
+    void findItemFromCacheTest() {
+        when(validItem.validationItemById(anyLong())).thenReturn(item1);
+
+        itemService.getItemDtoById(1L, 1L);
+        ItemDto itemDto = itemService.getItemDtoById(2L, 1L);
+
+        testItem(itemDto, itemDto1);
+        verify(validItem, times(1)).validationItemById(1L);
+        verify(bookingRepo, times(1)).findLastAndNextBookingsByItemId(eq(1L), any());
+    }
+
+    @Test
+    void findItemAfterUpdateTest() {
+        when(validItem.validationItemById(anyLong())).thenReturn(item1);
+        when(validItem.validationItemByUser(anyLong(), anyLong())).thenReturn(item1);
+        when(itemRepo.saveAndFlush(any())).thenReturn(item1);
+
+        itemService.getItemDtoById(1L, 1L);
+        itemService.updateItemDto(1L, 1L, ItemDto.builder().name("Max").build(), null);
+        ItemDto itemDto = itemService.getItemDtoById(1L, 1L);
+
+        assertThat(itemDto.getName(), equalTo("Max"));
+        verify(validItem, times(2)).validationItemById(1L);
+    }
+
+    @Test
+    void findItemWithBookingsOnlyForOwnerTest() {
+        Booking nextBooking = new Booking(3L, item1, 2L, date.plusDays(1), date.plusDays(2), 1, item1.getOwnerId(), 0L);
+        when(validItem.validationItemById(anyLong())).thenReturn(item1);
+        when(bookingRepo.findLastAndNextBookingsByItemId(eq(1L), any())).thenReturn(List.of(nextBooking));
+
+        ItemDto ownerView = itemService.getItemDtoById(1L, 1L);
+        ItemDto otherView = itemService.getItemDtoById(2L, 1L);
+
+        assertThat(ownerView.getLastBooking(), equalTo(nextBooking));
+        assertThat(otherView.getNextBooking(), nullValue());
+        assertThat(otherView.getLastBooking(), nullValue());
+    }
+
     @Test
     void findItemValidNotFoundExceptionTest() {
         when(validItem.validationItemById(anyLong())).thenThrow(new NotFoundException("Вещь с ID 1 не найдена"));
@@ -280,12 +417,12 @@ public class ItemServiceUnitTest {
     @Test
     void getItemsDtoByUserIdWithBookingTest() {
         List<Item> itemsTest = List.of(item1, item2);
-        Booking booking1 = new Booking(1L, item1, 2L, LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1), 0);
-        Booking booking2 = new Booking(2L, item1, 2L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), 0);
+        Booking booking1 = new Booking(1L, item1, 2L, LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1), 0, item1.getOwnerId(), 0L);
+        Booking booking2 = new Booking(2L, item2, 2L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), 0, item2.getOwnerId(), 0L);
         bookings = List.of(booking1, booking2);
 
         when(itemRepo.findByOwnerId(anyLong())).thenReturn(itemsTest);
-        when(bookingRepo.findAllBookingByItemIdOrderByStartTimeAsc(anyLong())).thenReturn(bookings);
+        when(bookingRepo.findLastAndNextBookingsByOwnerId(anyLong())).thenReturn(bookings);
 
         Collection<ItemDto> itemDto = itemService.getItemsDtoByUserId(1L);
         assertThat(itemDto, hasSize(2));
@@ -297,20 +434,52 @@ public class ItemServiceUnitTest {
     @Test
     void getItemsDtoBySearchTest() {
         List<Item> itemsTest = List.of(item1, item2);
-        when(itemRepo.getItemBySearch(anyString())).thenReturn(itemsTest);
-        Collection<ItemDto> itemDto = itemService.getItemsDtoBySearch(1L, "test");
+        when(itemRepo.getItemBySearch(anyString(), anyInt(), anyInt())).thenReturn(itemsTest);
+        Collection<ItemDto> itemDto = itemService.getItemsDtoBySearch(1L, "test", 0, 10);
         assertThat(itemDto, hasSize(items.size()));
         itemListTest(itemDto);
     }
 
+    @Test
+    void getItemsDtoBySearchFromIndexTest() {
+        when(searchEngine.search(anyString())).thenReturn(Optional.of(new long[]{2L, 1L}));
+        when(itemRepo.findAvailableIds(List.of(2L, 1L))).thenReturn(List.of(1L));
+        when(itemRepo.findAllById(List.of(1L))).thenReturn(List.of(item1));
+
+        List<ItemDto> itemDto = List.copyOf(itemService.getItemsDtoBySearch(1L, "test", 0, 10));
+
+        assertThat(itemDto, hasSize(1));
+        testItem(itemDto.getFirst(), itemDto1);
+    }
+
+    @Test
+    void getItemsDtoBySearchFromIndexSkipsUnavailableBeforePagingTest() {
+        when(searchEngine.search(anyString())).thenReturn(Optional.of(new long[]{3L, 2L, 1L}));
+        when(itemRepo.findAvailableIds(List.of(3L, 2L))).thenReturn(List.of(3L));
+        when(itemRepo.findAvailableIds(List.of(1L))).thenReturn(List.of(1L));
+        when(itemRepo.findAllById(List.of(1L))).thenReturn(List.of(item1));
+
+        List<ItemDto> itemDto = List.copyOf(itemService.getItemsDtoBySearch(1L, "test", 1, 1));
+
+        assertThat(itemDto, hasSize(1));
+        testItem(itemDto.getFirst(), itemDto1);
+        verify(itemRepo, never()).findAllById(List.of(3L));
+    }
+
     @Test
     void getItemsDtoByEmptySearchTest() {
-        List<Item> itemsTest = List.of();
-        when(itemRepo.getItemBySearch(anyString())).thenReturn(itemsTest);
-        Collection<ItemDto> itemDto = itemService.getItemsDtoBySearch(1L, " ");
+        Collection<ItemDto> itemDto = itemService.getItemsDtoBySearch(1L, " ", 0, 10);
         assertThat(itemDto, hasSize(0));
     }
 
+    @Test
+    void getItemNamesByPrefixTest() {
+        when(itemRepo.getItemNamesByPrefix("mi", 5)).thenReturn(List.of("Mik"));
+
+        assertThat(itemService.getItemNamesByPrefix(1L, " mi ", 5), equalTo(List.of("Mik")));
+        assertThat(itemService.getItemNamesByPrefix(1L, " ", 5), hasSize(0));
+    }
+
     @Test
     void getItemsDtoBySearchValidUserNotFoundExceptionTest() {
         when(validUser.validationUserById(anyLong()))
@@ -318,7 +487,7 @@ public class ItemServiceUnitTest {
 
         final NotFoundException exception = Assertions.assertThrows(
                 NotFoundException.class,
-                () -> itemService.getItemsDtoBySearch(2L, anyString())
+                () -> itemService.getItemsDtoBySearch(2L, "test", 0, 10)
         );
         Assertions.assertEquals("Пользователь с ID 2 не зарегистрирован", exception.getMessage());
     }
@@ -0,0 +1,130 @@
+package ru.practicum.shareit.item.unit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.data.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemDocument;
+import ru.practicum.shareit.item.search.NgramItemSearchEngine;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class NgramItemSearchEngineUnitTest {
+    @Mock
+    private ItemRepository itemRepo;
+
+    private NgramItemSearchEngine searchEngine;
+
+    @BeforeEach
+    void setUp() {
+        searchEngine = new NgramItemSearchEngine(itemRepo);
+        when(itemRepo.streamSearchDocuments()).thenReturn(Stream.of(
+                new ItemDocument(1L, "Дрель", "Ударная дрель Bosch", true),
+                new ItemDocument(2L, "Отвертка", "Аккумуляторная, идет с дрелью", true),
+                new ItemDocument(3L, "Старая дрель", "Не работает", false),
+                new ItemDocument(4L, "Дрель-шуруповерт", null, true)));
+        searchEngine.rebuild();
+    }
+
+    @Test
+    void searchByNameAndDescriptionTest() {
+        long[] ids = searchEngine.search("ДРЕЛ").orElseThrow();
+
+        assertThat(ids, equalTo(new long[]{1L, 4L, 2L}));
+    }
+
+    @Test
+    void searchWithoutMatchesTest() {
+        assertThat(searchEngine.search("пила").orElseThrow().length, is(0));
+    }
+
+    @Test
+    void searchShortTextFallsBackToDatabaseTest() {
+        assertThat(searchEngine.search("др").isEmpty(), is(true));
+    }
+
+    @Test
+    void indexUpdatedItemTest() {
+        searchEngine.index(new Item(3L, "Старая дрель", "Починили", 1L, true, null, List.of(), 0L));
+        searchEngine.index(new Item(1L, "Перфоратор", "Ударный", 1L, true, null, List.of(), 0L));
+
+        assertThat(searchEngine.search("дрель").orElseThrow(), equalTo(new long[]{3L, 4L, 2L}));
+        assertThat(searchEngine.search("перфоратор").orElseThrow(), equalTo(new long[]{1L}));
+    }
+
+    @Test
+    void indexItemWithDisabledAvailabilityTest() {
+        searchEngine.index(new Item(4L, "Дрель-шуруповерт", null, 1L, false, null, List.of(), 0L));
+
+        assertThat(searchEngine.search("шуруп").orElseThrow().length, is(0));
+    }
+
+    @Test
+    void suggestByPrefixTest() {
+        assertThat(searchEngine.suggest("дРе", 10).orElseThrow(), equalTo(List.of("Дрель", "Дрель-шуруповерт")));
+        assertThat(searchEngine.suggest("дре", 1).orElseThrow(), equalTo(List.of("Дрель")));
+        assertThat(searchEngine.suggest("стар", 10).orElseThrow(), equalTo(List.of()));
+    }
+
+    @Test
+    void suggestAfterItemUpdateTest() {
+        searchEngine.index(new Item(1L, "Перфоратор", "Ударный", 1L, true, null, List.of(), 0L));
+        searchEngine.index(new Item(3L, "Старая дрель", "Починили", 1L, true, null, List.of(), 0L));
+
+        assertThat(searchEngine.suggest("дре", 10).orElseThrow(), equalTo(List.of("Дрель-шуруповерт")));
+        assertThat(searchEngine.suggest("ст", 10).orElseThrow(), equalTo(List.of("Старая дрель")));
+    }
+
+    @Test
+    void suggestRanksByPopularityAndFoldsCaseTest() {
+        searchEngine.index(new Item(5L, "Пила", "Ручная", 1L, true, null, List.of(), 0L));
+        searchEngine.index(new Item(6L, "Пилка", "Для ногтей", 1L, true, null, List.of(), 0L));
+        searchEngine.index(new Item(7L, "пилка", "Маникюрная", 1L, true, null, List.of(), 0L));
+
+        assertThat(searchEngine.suggest("пи", 10).orElseThrow(), equalTo(List.of("Пилка", "Пила")));
+        assertThat(searchEngine.suggest("пи", 1).orElseThrow(), equalTo(List.of("Пилка")));
+        assertThat(searchEngine.suggest("пи", 20).orElseThrow(), equalTo(List.of("Пилка", "Пила")));
+
+        searchEngine.index(new Item(6L, "Пилка", "Для ногтей", 1L, false, null, List.of(), 0L));
+
+        assertThat(searchEngine.suggest("пи", 10).orElseThrow(), equalTo(List.of("Пила", "пилка")));
+    }
+
+    @Test
+    void indexItemWithIdAboveIntRangeTest() {
+        long id = Integer.MAX_VALUE + 10L;
+        searchEngine.index(new Item(id, "Лобзик", "Электрический", 1L, true, null, List.of(), 0L));
+
+        assertThat(searchEngine.search("лобзик").orElseThrow(), equalTo(new long[]{id}));
+    }
+
+    @Test
+    void rebuildKeepsWritesMadeWhileLoadingTest() {
+        when(itemRepo.streamSearchDocuments()).thenReturn(Stream.of(
+                        new ItemDocument(1L, "Дрель", "Ударная дрель Bosch", true),
+                        new ItemDocument(2L, "Отвертка", "Аккумуляторная", true))
+                .peek(document -> {
+                    if (document.id() == 1L) {
+                        searchEngine.index(new Item(1L, "Перфоратор", "Ударный", 1L, true, null, List.of(), 0L));
+                        searchEngine.index(new Item(5L, "Лобзик", "Электрический", 1L, true, null, List.of(), 0L));
+                    }
+                }));
+
+        searchEngine.rebuild();
+
+        assertThat(searchEngine.search("перфоратор").orElseThrow(), equalTo(new long[]{1L}));
+        assertThat(searchEngine.search("лобзик").orElseThrow(), equalTo(new long[]{5L}));
+        assertThat(searchEngine.search("дрель").orElseThrow().length, is(0));
+        assertThat(searchEngine.suggest("от", 10).orElseThrow(), equalTo(List.of("Отвертка")));
+    }
+}
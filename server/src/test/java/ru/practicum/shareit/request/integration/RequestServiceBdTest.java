@@ -113,7 +113,7 @@ public class RequestServiceBdTest {
                     hasProperty("id", notNullValue()),
                     hasProperty("description", equalTo(reqResponseDto.getDescription())),
                     hasProperty("created", equalTo(reqResponseDto.getCreated())),
-                    hasProperty("items", equalTo(List.of()))
+                    hasProperty("items", hasSize(countItemsByRequestId(reqResponseDto.getId())))
             )));
         }
     }
@@ -147,4 +147,11 @@ public class RequestServiceBdTest {
         TypedQuery<Request> query = em.createQuery("SELECT r FROM Request r WHERE r.id = :id", Request.class);
         return query.setParameter("id", id).getSingleResult();
     }
+
+    private int countItemsByRequestId(long requestId) {
+        return em.createQuery("select count(it) from Item it where it.requestId = :id", Long.class)
+                .setParameter("id", requestId)
+                .getSingleResult()
+                .intValue();
+    }
 }
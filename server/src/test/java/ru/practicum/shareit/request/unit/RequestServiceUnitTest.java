@@ -8,6 +8,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.EmptyResultDataAccessException;
+import ru.practicum.shareit.item.data.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemForRequestDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.data.RequestRepository;
@@ -35,6 +36,8 @@ public class RequestServiceUnitTest {
     private ValidationUser validUser;
     @Mock
     private RequestRepository requestRepo;
+    @Mock
+    private ItemRepository itemRepo;
 
     private RequestServiceImpl requestService;
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd@HH:mm:ss")
@@ -45,7 +48,7 @@ public class RequestServiceUnitTest {
 
     @BeforeEach
     void setUp() {
-        requestService = new RequestServiceImpl(requestRepo, validUser);
+        requestService = new RequestServiceImpl(requestRepo, validUser, itemRepo);
 
         request1 = new Request(1L, "test1", createdDate, 1L, List.of());
         Request request2 = new Request(2L, "test2", createdDate.plusDays(5), 1L, List.of());
@@ -91,8 +94,8 @@ public class RequestServiceUnitTest {
 
     @Test
     void getRequest() {
-        Item item1 = new Item(7L, "Mik", "test1", 1L, true, 2L, List.of());
-        Item item2 = new Item(9L, "Mark", "test2", 11L, false, 9L, List.of());
+        Item item1 = new Item(7L, "Mik", "test1", 1L, true, 2L, List.of(), 0L);
+        Item item2 = new Item(9L, "Mark", "test2", 11L, false, 9L, List.of(), 0L);
         request1.setItems(List.of(item1, item2));
 
         ItemForRequestDto itemForRequest1 = ItemForRequestDto.builder()
@@ -155,6 +158,22 @@ public class RequestServiceUnitTest {
         requestListTest(responseDto);
     }
 
+    @Test
+    void getRequestsByUserIdWithItems() {
+        Item item1 = new Item(7L, "Mik", "test1", 3L, true, 1L, List.of(), 0L);
+        Item item2 = new Item(9L, "Mark", "test2", 4L, true, 2L, List.of(), 0L);
+        Item item3 = new Item(10L, "Max", "test3", 4L, true, 2L, List.of(), 0L);
+        when(requestRepo.findAllByUserIdOrderByCreatedDesc(anyLong())).thenReturn(requests);
+        when(itemRepo.findByRequestIdInOrderById(List.of(1L, 2L))).thenReturn(List.of(item1, item2, item3));
+
+        List<ReqResponseDto> responseDto = requestService.getRequestsByUserId(1L);
+
+        assertThat(responseDto.get(0).getItems(), contains(hasProperty("id", equalTo(7L))));
+        assertThat(responseDto.get(1).getItems(), contains(
+                hasProperty("id", equalTo(9L)),
+                hasProperty("id", equalTo(10L))));
+    }
+
     @Test
     void getRequestsByUserIdValidUserNotFoundException() {
         when(validUser.validationUserById(anyLong()))
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.user.unit;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,6 +9,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.user.data.UserRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserCache;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 import ru.practicum.shareit.validation.exeption.IncorrectParameterException;
@@ -35,7 +37,8 @@ public class UserServiceUnitTest {
 
     @BeforeEach
     void setUp() {
-        userService = new UserServiceImpl(mockValidationUser, mockUserRepository);
+        userService = new UserServiceImpl(mockValidationUser, mockUserRepository,
+                new UserCache(100, new SimpleMeterRegistry()));
         user = new User(1L, "John", "test1@mail.com");
     }
 
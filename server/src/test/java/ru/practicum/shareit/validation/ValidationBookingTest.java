@@ -5,8 +5,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.data.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.data.BookingRepository;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.validation.booking.ValidationBooking;
 import ru.practicum.shareit.validation.exeption.BadRequestException;
@@ -16,6 +19,7 @@ import ru.practicum.shareit.validation.item.ValidationItem;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -28,6 +32,8 @@ public class ValidationBookingTest {
     private ValidationItem validItem;
     @Mock
     private BookingRepository bookingRepo;
+    @Mock
+    private ArchivedBookingRepository archivedBookingRepo;
 
     private ValidationBooking validationBooking;
     private final LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
@@ -38,10 +44,11 @@ public class ValidationBookingTest {
     public void setUp() {
         validationBooking = new ValidationBooking(
                 bookingRepo,
+                archivedBookingRepo,
                 validItem
         );
 
-        item = new Item(4L,"Mike","test1",1L,true,null, List.of());
+        item = new Item(4L,"Mike","test1",1L,true,null, List.of(), 0L);
     }
 
     @Test
@@ -78,4 +85,26 @@ public class ValidationBookingTest {
         );
         assertEquals("Бронирование с ID 1 не найдено", exception.getMessage());
     }
+
+    @Test
+    void testValidateBookingWithArchiveById() {
+        ArchivedBooking archived = new ArchivedBooking(1L, item, 2L, start.minusYears(2), end.minusYears(2), 1, 1L, LocalDateTime.now());
+        when(bookingRepo.findById(1L)).thenReturn(Optional.empty());
+        when(archivedBookingRepo.findById(1L)).thenReturn(Optional.of(archived));
+
+        Booking booking = validationBooking.validationBookingWithArchiveById(1L);
+
+        assertEquals(1L, booking.getId());
+        assertEquals(2L, booking.getBookerId());
+        assertEquals(item.getId(), booking.getItem().getId());
+    }
+
+    @Test
+    void testValidateBookingWithArchiveByIdNotFoundException() {
+        final NotFoundException exception = assertThrows(
+                NotFoundException.class,
+                () -> validationBooking.validationBookingWithArchiveById(1L)
+        );
+        assertEquals("Бронирование с ID 1 не найдено", exception.getMessage());
+    }
 }
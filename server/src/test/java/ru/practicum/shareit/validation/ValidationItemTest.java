@@ -0,0 +1,95 @@
+package ru.practicum.shareit.validation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.data.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.CommentEligibilityIndex;
+import ru.practicum.shareit.item.service.ItemOwnerIndex;
+import ru.practicum.shareit.validation.exeption.NotFoundException;
+import ru.practicum.shareit.validation.item.ValidationItem;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ValidationItemTest {
+    @Mock
+    private ItemRepository itemRepo;
+    @Mock
+    private ItemOwnerIndex itemOwnerIndex;
+    @Mock
+    private CommentEligibilityIndex commentEligibilityIndex;
+
+    private ValidationItem validationItem;
+    private Item item;
+
+    @BeforeEach
+    public void setUp() {
+        validationItem = new ValidationItem(itemRepo, itemOwnerIndex, commentEligibilityIndex);
+        item = new Item(4L, "Mike", "test1", 1L, true, null, List.of(), 0L);
+    }
+
+    @Test
+    void validationItemOwnerWithoutDatabaseTest() {
+        when(itemOwnerIndex.getOwnerId(4L)).thenReturn(1L);
+
+        assertDoesNotThrow(() -> validationItem.validationItemOwner(4L, 1L));
+        verify(itemRepo, never()).findById(anyLong());
+    }
+
+    @Test
+    void validationItemOwnerForeignUserTest() {
+        when(itemOwnerIndex.getOwnerId(4L)).thenReturn(1L);
+        when(itemRepo.findById(4L)).thenReturn(Optional.of(item));
+
+        final NotFoundException exception = assertThrows(
+                NotFoundException.class,
+                () -> validationItem.validationItemOwner(4L, 2L)
+        );
+        assertEquals("Mike не принадлежит пользователю с ID 2", exception.getMessage());
+    }
+
+    @Test
+    void validationItemByUserSingleLookupTest() {
+        when(itemRepo.findById(4L)).thenReturn(Optional.of(item));
+
+        assertEquals(item, validationItem.validationItemByUser(4L, 1L));
+        verify(itemRepo, times(1)).findById(4L);
+        verify(itemOwnerIndex, never()).getOwnerId(anyLong());
+    }
+
+    @Test
+    void validationItemByUserForeignUserTest() {
+        when(itemRepo.findById(4L)).thenReturn(Optional.of(item));
+
+        final NotFoundException exception = assertThrows(
+                NotFoundException.class,
+                () -> validationItem.validationItemByUser(4L, 2L)
+        );
+        assertEquals("Mike не принадлежит пользователю с ID 2", exception.getMessage());
+    }
+
+    @Test
+    void validationItemOwnerUnknownItemTest() {
+        when(itemOwnerIndex.getOwnerId(4L)).thenReturn(ItemOwnerIndex.NO_OWNER);
+
+        final NotFoundException exception = assertThrows(
+                NotFoundException.class,
+                () -> validationItem.validationItemOwner(4L, 1L)
+        );
+        assertEquals("Вещь с ID 4 не найдена", exception.getMessage());
+    }
+}
@@ -1,16 +1,25 @@
 package ru.practicum.shareit.validation;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.user.data.UserRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserCache;
 import ru.practicum.shareit.validation.exeption.NotFoundException;
 import ru.practicum.shareit.validation.user.ValidationUser;
 
+import java.util.Optional;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 public class ValidationUserTest {
@@ -18,10 +27,12 @@ public class ValidationUserTest {
     private UserRepository userRepo;
 
     private ValidationUser validationUser;
+    private UserCache userCache;
 
     @BeforeEach
     public void setUp() {
-        validationUser = new ValidationUser(userRepo);
+        userCache = new UserCache(100, new SimpleMeterRegistry());
+        validationUser = new ValidationUser(userRepo, userCache);
     }
 
     @Test
@@ -32,4 +43,31 @@ public class ValidationUserTest {
         );
         assertEquals("Пользователь с ID 1 не зарегистрирован", exception.getMessage());
     }
+
+    @Test
+    void testValidateUserByIdFromCache() {
+        when(userRepo.findById(1L)).thenReturn(Optional.of(new User(1L, "John", "test1@mail.com")));
+
+        User first = validationUser.validationUserById(1L);
+        User second = validationUser.validationUserById(1L);
+        second.setName("Changed");
+        User third = validationUser.validationUserById(1L);
+
+        assertEquals("John", first.getName());
+        assertEquals("John", third.getName());
+        assertNotSame(second, third);
+        verify(userRepo, times(1)).findById(1L);
+    }
+
+    @Test
+    void testValidateUserByIdAfterInvalidate() {
+        when(userRepo.findById(1L)).thenReturn(Optional.of(new User(1L, "John", "test1@mail.com")))
+                .thenReturn(Optional.empty());
+
+        validationUser.validationUserById(1L);
+        userCache.invalidate(1L);
+
+        assertThrows(NotFoundException.class, () -> validationUser.validationUserById(1L));
+        verify(userRepo, times(2)).findById(1L);
+    }
 }